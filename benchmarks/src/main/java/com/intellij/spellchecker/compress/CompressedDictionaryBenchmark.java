@@ -0,0 +1,92 @@
+package com.intellij.spellchecker.compress;
+
+import com.intellij.spellchecker.DefaultBundledDictionariesProvider;
+import com.intellij.spellchecker.StreamLoader;
+import com.intellij.spellchecker.engine.Transformation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building {@link CompressedDictionary} from every bundled dictionary and its membership probes
+ * for present words, absent words and words of letters unknown to the dictionary.
+ *
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressedDictionaryBenchmark {
+    private static final int WORDS_COUNT = 256;
+
+    @Param({"english.dic", "names.dic", "names-misc.dic", "programming.dic", "programming-misc.dic", "programming-names.dic"})
+    public String dictionary;
+
+    private final Transformation myTransform = new Transformation();
+    private byte[] myContent;
+    private CompressedDictionary myDictionary;
+    private String[] myHits;
+    private String[] myMisses;
+    private String[] myUnknown;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        try (InputStream stream = DefaultBundledDictionariesProvider.class.getResourceAsStream(dictionary)) {
+            myContent = stream.readAllBytes();
+        }
+        myDictionary = create();
+
+        List<String> words = new ArrayList<>(myDictionary.getWords());
+        Collections.sort(words);
+        Collections.shuffle(words, new Random(42));
+        myHits = new String[WORDS_COUNT];
+        myMisses = new String[WORDS_COUNT];
+        myUnknown = new String[WORDS_COUNT];
+        for (int i = 0; i < WORDS_COUNT; i++) {
+            String word = words.get(i % words.size());
+            myHits[i] = word;
+            myMisses[i] = word.substring(0, word.length() / 2) + "qx" + word.substring(word.length() / 2);
+            myUnknown[i] = "\u043f\u0440\u0438\u0432\u0435\u0442".substring(0, 3 + i % 4);
+        }
+    }
+
+    @Benchmark
+    public CompressedDictionary create() {
+        return CompressedDictionary.create(new StreamLoader(new ByteArrayInputStream(myContent), dictionary), myTransform);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WORDS_COUNT)
+    public void containsHit(Blackhole blackhole) {
+        contains(myHits, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WORDS_COUNT)
+    public void containsMiss(Blackhole blackhole) {
+        contains(myMisses, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WORDS_COUNT)
+    public void containsUnknownLetters(Blackhole blackhole) {
+        contains(myUnknown, blackhole);
+    }
+
+    private void contains(String[] words, Blackhole blackhole) {
+        for (String word : words) {
+            blackhole.consume(myDictionary.contains(word, 0, word.length()));
+        }
+    }
+}
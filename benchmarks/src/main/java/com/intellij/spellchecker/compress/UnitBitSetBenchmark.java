@@ -0,0 +1,77 @@
+package com.intellij.spellchecker.compress;
+
+import com.intellij.spellchecker.DefaultBundledDictionariesProvider;
+import com.intellij.spellchecker.StreamLoader;
+import com.intellij.spellchecker.engine.Transformation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packing letter indices of english words into bits and decoding packed words back.
+ *
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnitBitSetBenchmark {
+    private static final int WORDS_COUNT = 256;
+
+    private Alphabet myAlphabet;
+    private int myMeaningfulBits;
+    private byte[][] myIndices;
+    private byte[][] myPacked;
+    private final byte[] myBuffer = new byte[UnitBitSet.MAX_CHARS_IN_WORD];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String name = "english.dic";
+        CompressedDictionary dictionary = CompressedDictionary.create(
+            new StreamLoader(DefaultBundledDictionariesProvider.class.getResourceAsStream(name), name),
+            new Transformation()
+        );
+        myAlphabet = dictionary.getAlphabet();
+        myMeaningfulBits = UnitBitSet.getMeaningfulBits(myAlphabet);
+        Encoder encoder = new Encoder(myAlphabet);
+
+        List<String> words = new ArrayList<>(dictionary.getWords());
+        Collections.sort(words);
+        Collections.shuffle(words, new Random(42));
+        myIndices = new byte[WORDS_COUNT][];
+        myPacked = new byte[WORDS_COUNT][];
+        for (int i = 0; i < WORDS_COUNT; i++) {
+            String word = words.get(i);
+            byte[] indices = new byte[word.length()];
+            for (int j = 0; j < word.length(); j++) {
+                indices[j] = (byte) myAlphabet.getIndex(word.charAt(j), false);
+            }
+            myIndices[i] = indices;
+            myPacked[i] = encoder.encode(word, false).pack();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WORDS_COUNT)
+    public void pack(Blackhole blackhole) {
+        for (byte[] indices : myIndices) {
+            blackhole.consume(UnitBitSet.pack(indices, indices.length, myMeaningfulBits, myBuffer));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WORDS_COUNT)
+    public void decode(Blackhole blackhole) {
+        for (byte[] packed : myPacked) {
+            blackhole.consume(UnitBitSet.decode(packed, myAlphabet));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.intellij.spellchecker.engine;
+
+import consulo.application.Application;
+import consulo.project.Project;
+import jakarta.annotation.Nonnull;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+
+/**
+ * Minimal {@link Project} for running {@link BaseSpellChecker} outside of IDE: dictionaries are loaded synchronously
+ * as in unit test mode, pooled tasks run in place and services are resolved to a registry without compiled storage.
+ *
+ * @since 2026-10-17
+ */
+final class BenchmarkProject {
+    private BenchmarkProject() {
+    }
+
+    @Nonnull
+    static Project create() {
+        CompressedDictionaryRegistry registry = new CompressedDictionaryRegistry(null);
+        SpellCheckerStatistics statistics = new SpellCheckerStatistics();
+        Application application = proxy(Application.class, (method, args) -> switch (method.getName()) {
+            case "getInstance" -> args[0] == SpellCheckerStatistics.class ? statistics : registry;
+            case "isUnitTestMode" -> true;
+            case "executeOnPooledThread" -> {
+                ((Runnable) args[0]).run();
+                yield CompletableFuture.completedFuture(null);
+            }
+            default -> null;
+        });
+        return proxy(Project.class, (method, args) -> switch (method.getName()) {
+            case "getApplication" -> application;
+            case "isInitialized", "isOpen" -> true;
+            default -> null;
+        });
+    }
+
+    @Nonnull
+    private static <T> T proxy(@Nonnull Class<T> type, @Nonnull BiFunction<Method, Object[], Object> handler) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (instance, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> instance == args[0];
+                    case "hashCode" -> System.identityHashCode(instance);
+                    default -> type.getSimpleName();
+                };
+            }
+            Object result = handler.apply(method, args);
+            return result != null ? result : defaultValue(method.getReturnType());
+        });
+        return type.cast(proxy);
+    }
+
+    private static Object defaultValue(@Nonnull Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
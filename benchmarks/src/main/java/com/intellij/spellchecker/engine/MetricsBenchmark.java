@@ -0,0 +1,53 @@
+package com.intellij.spellchecker.engine;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Edit distance of a typo to a dictionary word, unbounded and bounded by the current worst suggestion.
+ *
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+    @Param({"levenshtein", "myers"})
+    public String metrics;
+
+    @Param({"teh:the", "implemantation:implementation", "configuraton:internationalization"})
+    public String words;
+
+    private Metrics myMetrics;
+    private Metrics.Query myQuery;
+    private String myTypo;
+    private String myWord;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        myMetrics = metrics.equals("myers") ? new MyersDistance() : new LevenshteinDistance();
+        int separator = words.indexOf(':');
+        myTypo = words.substring(0, separator);
+        myWord = words.substring(separator + 1);
+        myQuery = myMetrics.forQuery(myTypo);
+    }
+
+    @Benchmark
+    public int distance() {
+        return myMetrics.calculateMetrics(myTypo, myWord);
+    }
+
+    @Benchmark
+    public int boundedDistance() {
+        return myMetrics.calculateMetrics(myTypo, myWord, 2);
+    }
+
+    @Benchmark
+    public int preparedQuery() {
+        return myQuery.calculateMetrics(myWord, 2);
+    }
+}
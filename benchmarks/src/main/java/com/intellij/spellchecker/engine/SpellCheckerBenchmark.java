@@ -0,0 +1,66 @@
+package com.intellij.spellchecker.engine;
+
+import com.intellij.spellchecker.DefaultBundledDictionariesProvider;
+import com.intellij.spellchecker.StreamLoader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BaseSpellChecker} with all default bundled dictionaries, as used by the spelling inspection.
+ * Pass {@code -jvmArgsAppend -Dspellchecker.merged.index=true} to measure the merged index.
+ *
+ * @since 2026-10-17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpellCheckerBenchmark {
+    private static final String[] CORRECT = {
+        "implementation", "dictionary", "Spellchecker", "iterator", "the", "configuration", "PARAMETER", "database",
+    };
+    private static final String[] TYPOS = {
+        "implemantation", "dictionnary", "spelchecker", "iteratr", "teh", "configuraton", "PARAMTER", "databse",
+    };
+
+    private BaseSpellChecker mySpellChecker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mySpellChecker = new BaseSpellChecker(BenchmarkProject.create());
+        for (String name : new DefaultBundledDictionariesProvider().getBundledDictionaries()) {
+            mySpellChecker.loadDictionary(new StreamLoader(DefaultBundledDictionariesProvider.class.getResourceAsStream(name), name));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void isCorrectHit(Blackhole blackhole) {
+        for (String word : CORRECT) {
+            blackhole.consume(mySpellChecker.isCorrect(word));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void isCorrectMiss(Blackhole blackhole) {
+        for (String word : TYPOS) {
+            blackhole.consume(mySpellChecker.isCorrect(word));
+        }
+    }
+
+    @Benchmark
+    public List<String> suggestionsShortTypo() {
+        return mySpellChecker.getSuggestions("teh", 5, 1);
+    }
+
+    @Benchmark
+    public List<String> suggestionsLongTypo() {
+        return mySpellChecker.getSuggestions("implemantation", 5, 1);
+    }
+}
@@ -16,21 +16,31 @@
 package com.intellij.spellchecker;
 
 import com.intellij.spellchecker.dictionary.Loader;
+import com.intellij.spellchecker.util.LineReader;
 import consulo.logging.Logger;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.function.Consumer;
 
-@SuppressWarnings({"IOResourceOpenedButNotSafelyClosed"})
 public class FileLoader implements Loader {
     private static final Logger LOG = Logger.getInstance(FileLoader.class);
 
     private final String url;
     private final String name;
+    // read by getContentHash() and held until the following load, so the file is read once and exactly the hashed content is parsed
+    @Nullable
+    private Content content;
+
+    private record Content(@Nonnull byte[] bytes, @Nonnull String hash) {
+    }
 
     public FileLoader(String url, String name) {
         this.url = url;
@@ -42,24 +52,84 @@ public class FileLoader implements Loader {
         return name;
     }
 
+    @Nonnull
+    @Override
+    public String getSourceId() {
+        return new File(url).getAbsolutePath();
+    }
+
+    /**
+     * Reads and hashes the file, unless the content hashed before is not loaded yet
+     */
+    @Nullable
+    @Override
+    public synchronized String getContentHash() {
+        if (content == null) {
+            byte[] bytes = read();
+            if (bytes == null) {
+                return null;
+            }
+            content = new Content(bytes, StreamLoader.hash(bytes));
+        }
+        return content.hash();
+    }
+
+    @Override
+    public synchronized void releaseContent() {
+        content = null;
+    }
+
     @Override
     public void load(@Nonnull Consumer<String> consumer) {
-        File file = new File(url);
-        FileInputStream stream = null;
+        loadLines(line -> consumer.accept(line.toString()));
+    }
+
+    /**
+     * Parses the content read by the preceding {@link #getContentHash()}, otherwise reads the file
+     */
+    @Override
+    public void loadLines(@Nonnull Consumer<? super CharSequence> consumer) {
+        byte[] bytes = takeContent();
+        if (bytes == null) {
+            return;
+        }
         try {
-            stream = new FileInputStream(file);
-            StreamLoader loader = new StreamLoader(stream, file.getName());
-            loader.load(consumer);
+            LineReader.readLines(ByteBuffer.wrap(bytes), consumer);
         }
         catch (Exception e) {
             LOG.error(e);
         }
-        finally {
-            try {
-                stream.close();
+    }
+
+    /**
+     * Reads the whole file into the heap instead of mapping it, a mapped file stays locked on Windows
+     * until the buffer is collected, so the user couldn't edit or delete the dictionary
+     */
+    @Nullable
+    private byte[] read() {
+        try (FileChannel channel = FileChannel.open(new File(url).toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IOException("Dictionary is too large: " + size + " bytes");
             }
-            catch (IOException ignored) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
             }
+            return buffer.position() == buffer.capacity() ? buffer.array() : Arrays.copyOf(buffer.array(), buffer.position());
+        }
+        catch (IOException e) {
+            LOG.warn("Couldn't read dictionary '" + url + "'", e);
+            return null;
         }
     }
+
+    @Nullable
+    private synchronized byte[] takeContent() {
+        Content hashed = content;
+        content = null;
+        return hashed != null ? hashed.bytes() : read();
+    }
 }
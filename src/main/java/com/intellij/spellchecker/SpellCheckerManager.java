@@ -19,18 +19,26 @@ import com.intellij.spellchecker.dictionary.EditableDictionary;
 import com.intellij.spellchecker.dictionary.Loader;
 import com.intellij.spellchecker.engine.SpellCheckerEngine;
 import com.intellij.spellchecker.engine.SpellCheckerFactory;
+import com.intellij.spellchecker.engine.SpellCheckerStatistics;
 import com.intellij.spellchecker.engine.SuggestionProvider;
 import com.intellij.spellchecker.settings.SpellCheckerSettings;
 import com.intellij.spellchecker.state.StateLoader;
+import com.intellij.spellchecker.util.DictionaryFolderWatcher;
 import com.intellij.spellchecker.util.SPFileUtil;
 import com.intellij.spellchecker.util.Strings;
+import com.intellij.spellchecker.util.VerdictCache;
 import consulo.annotation.access.RequiredWriteAction;
 import consulo.annotation.component.ComponentScope;
 import consulo.annotation.component.ServiceAPI;
 import consulo.annotation.component.ServiceImpl;
 import consulo.application.Application;
+import consulo.application.util.concurrent.AppExecutorUtil;
+import consulo.container.plugin.PluginDescriptor;
+import consulo.container.plugin.PluginManager;
+import consulo.disposer.Disposable;
 import consulo.language.editor.DaemonCodeAnalyzer;
 import consulo.language.editor.rawHighlight.HighlightDisplayLevel;
+import consulo.language.psi.PsiFile;
 import consulo.language.psi.PsiManager;
 import consulo.language.psi.PsiModificationTracker;
 import consulo.language.spellchecker.editor.SpellcheckerSeverities;
@@ -43,13 +51,18 @@ import jakarta.annotation.Nullable;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Singleton
 @ServiceAPI(ComponentScope.PROJECT)
 @ServiceImpl
-public class SpellCheckerManager {
+public class SpellCheckerManager implements Disposable {
     private static final Logger LOG = Logger.getInstance(SpellCheckerManager.class);
 
     private static final int MAX_SUGGESTIONS_THRESHOLD = 5;
@@ -64,6 +77,82 @@ public class SpellCheckerManager {
 
     private final SpellCheckerSettings settings;
 
+    /**
+     * Size, modification time and content hash of a loaded folder dictionary file.
+     * The hash is computed only once the file attributes change, so opening a project doesn't read every folder dictionary.
+     */
+    private record DictionaryStamp(long size, long modified, @Nullable String contentHash) {
+        @Nonnull
+        static DictionaryStamp of(@Nonnull String path) {
+            File file = new File(path);
+            return new DictionaryStamp(file.length(), file.lastModified(), null);
+        }
+
+        /**
+         * @param loader loader of the file, which keeps the hashed content for the following load
+         * @return {@code previous} if the file attributes didn't change, otherwise a stamp with the hash of the current content
+         */
+        @Nonnull
+        static DictionaryStamp of(@Nonnull String path, @Nonnull DictionaryStamp previous, @Nonnull FileLoader loader) {
+            DictionaryStamp stamp = of(path);
+            if (stamp.size() == previous.size() && stamp.modified() == previous.modified()) {
+                return previous;
+            }
+            return new DictionaryStamp(stamp.size(), stamp.modified(), loader.getContentHash());
+        }
+
+        boolean hasSameContent(@Nonnull DictionaryStamp other) {
+            return this == other || contentHash != null && contentHash.equals(other.contentHash());
+        }
+    }
+
+    /**
+     * Change of a folder dictionary, computed without holding the manager lock
+     *
+     * @param previous stamp the change was computed against
+     * @param stamp    new stamp or {@code null} if the dictionary should be removed
+     * @param loader   loader keeping the hashed content for the load or {@code null} if the dictionary should be removed
+     */
+    private record FolderDictionaryUpdate(
+        @Nonnull String path,
+        @Nullable DictionaryStamp previous,
+        @Nullable DictionaryStamp stamp,
+        @Nullable FileLoader loader
+    ) {
+        @Nonnull
+        static FolderDictionaryUpdate of(@Nonnull String path, @Nullable DictionaryStamp previous) {
+            FileLoader loader = new FileLoader(path, path);
+            DictionaryStamp stamp = previous == null ? DictionaryStamp.of(path) : DictionaryStamp.of(path, previous, loader);
+            return new FolderDictionaryUpdate(path, previous, stamp, loader);
+        }
+
+        @Nonnull
+        static FolderDictionaryUpdate removal(@Nonnull String path, @Nonnull DictionaryStamp previous) {
+            return new FolderDictionaryUpdate(path, previous, null, null);
+        }
+    }
+
+    private final Map<String, DictionaryStamp> myFolderDictionaries = new ConcurrentHashMap<>();
+    // settings are applied on the EDT, folder dictionaries are stamped and hashed here one reload after another
+    private static final ExecutorService ourFolderExecutor =
+        AppExecutorUtil.createBoundedApplicationPoolExecutor("Spellchecker Folder Dictionaries", 1);
+
+    private static final long FOLDER_EVENTS_DEBOUNCE_MILLIS = 500;
+    @Nullable
+    private DictionaryFolderWatcher myFolderWatcher;
+    @Nonnull
+    private List<String> myWatchedFolders = List.of();
+
+    // 0 disables the cache of hasProblem verdicts
+    private static final int VERDICT_CACHE_SIZE = Integer.getInteger("spellchecker.verdict.cache.size", 16384);
+    private static final int VERDICT_CACHE_STRIPES = 16;
+    private final VerdictCache<String, Boolean> myVerdicts = new VerdictCache<>(VERDICT_CACHE_SIZE, VERDICT_CACHE_STRIPES);
+    // incremented after every change of the engine or user dictionaries, cached verdicts are valid for one generation
+    private final AtomicLong myGeneration = new AtomicLong();
+
+    // files analysed while dictionaries were loading, typos in them were not reported
+    private final Set<PsiFile> myFilesToRestart = Collections.newSetFromMap(new WeakHashMap<>());
+
     @Deprecated
     public static SpellCheckerManager getInstance(@Nonnull Project project) {
         return project.getInstance(SpellCheckerManager.class);
@@ -76,57 +165,240 @@ public class SpellCheckerManager {
         fullConfigurationReload();
     }
 
+    /**
+     * Manager over the given engine and user dictionary, configured dictionaries are not loaded
+     */
+    SpellCheckerManager(
+        @Nonnull Project project,
+        @Nullable SpellCheckerSettings settings,
+        @Nonnull SpellCheckerEngine spellChecker,
+        @Nonnull EditableDictionary userDictionary
+    ) {
+        this.myProject = project;
+        this.settings = settings;
+        mySpellChecker = spellChecker;
+        mySpellChecker.addChangeListener(myGeneration::incrementAndGet);
+        myUserDictionary = userDictionary;
+    }
+
     public void fullConfigurationReload() {
+        if (mySpellChecker != null) {
+            mySpellChecker.reset();
+        }
         mySpellChecker = SpellCheckerFactory.create(myProject);
+        mySpellChecker.addChangeListener(myGeneration::incrementAndGet);
+        myGeneration.incrementAndGet();
         fillEngineDictionary();
     }
 
+    /**
+     * Applies changed settings: loads newly enabled and changed dictionaries, removes disabled and deleted ones
+     * and restarts highlighting of this project only if its dictionaries actually changed
+     */
     public void updateBundledDictionaries(List<String> removedDictionaries) {
+        boolean[] changed = new boolean[1];
         myProject.getApplication().getExtensionPoint(BundledDictionaryProvider.class).forEach(provider -> {
             for (String dictionary : provider.getBundledDictionaries()) {
                 boolean dictionaryShouldBeLoad = settings == null || !settings.getBundledDisabledDictionariesPaths().contains(dictionary);
                 boolean dictionaryIsLoad = mySpellChecker.isDictionaryLoad(dictionary);
                 if (dictionaryIsLoad && !dictionaryShouldBeLoad) {
                     mySpellChecker.removeDictionary(dictionary);
+                    changed[0] = true;
                 }
                 else if (!dictionaryIsLoad && dictionaryShouldBeLoad) {
-                    Class<? extends BundledDictionaryProvider> loaderClass = provider.getClass();
-                    InputStream stream = loaderClass.getResourceAsStream(dictionary);
-                    if (stream != null) {
-                        mySpellChecker.loadDictionary(new StreamLoader(stream, dictionary));
-                    }
-                    else {
-                        LOG.warn("Couldn't load dictionary '" + dictionary + "' with loader '" + loaderClass + "'");
+                    Loader loader = createBundledLoader(provider, dictionary);
+                    if (loader != null) {
+                        mySpellChecker.loadDictionary(loader);
+                        changed[0] = true;
                     }
                 }
             }
         });
+        if (removedDictionaries != null && !removedDictionaries.isEmpty()) {
+            synchronized (this) {
+                for (String name : removedDictionaries) {
+                    if (mySpellChecker.isDictionaryLoad(name)) {
+                        mySpellChecker.removeDictionary(name);
+                        myFolderDictionaries.remove(name);
+                        changed[0] = true;
+                    }
+                }
+            }
+        }
+        // stamps and hashes folder dictionaries off the calling thread, restarts highlighting itself
+        reloadFolderDictionaries();
+
+        if (changed[0]) {
+            restartProjectInspections();
+        }
+    }
+
+    /**
+     * Compares dictionaries of the configured folders with loaded ones by {@link DictionaryStamp} in background,
+     * reloads only added or changed files and restarts highlighting if any dictionary was loaded or removed
+     */
+    void reloadFolderDictionaries() {
+        Runnable reload = () -> {
+            if (myProject.isDisposed()) {
+                return;
+            }
+            if (applyFolderDictionaries(collectFolderDictionaries())) {
+                restartProjectInspections();
+            }
+            watchFolders();
+        };
+        Application application = myProject.getApplication();
+        if (application.isUnitTestMode() || application.isHeadlessEnvironment()) {
+            reload.run();
+        }
+        else {
+            ourFolderExecutor.execute(reload);
+        }
+    }
+
+    /**
+     * Lists the configured folders and stamps their dictionaries, hashing changed ones
+     */
+    @Nonnull
+    private List<FolderDictionaryUpdate> collectFolderDictionaries() {
+        Set<String> paths = new LinkedHashSet<>();
         if (settings != null && settings.getDictionaryFoldersPaths() != null) {
             Set<String> disabledDictionaries = settings.getDisabledDictionariesPaths();
             for (String folder : settings.getDictionaryFoldersPaths()) {
-                SPFileUtil.processFilesRecursively(
-                    folder,
-                    s -> {
-                        boolean dictionaryShouldBeLoad = !disabledDictionaries.contains(s);
-                        boolean dictionaryIsLoad = mySpellChecker.isDictionaryLoad(s);
-                        if (dictionaryIsLoad && !dictionaryShouldBeLoad) {
-                            mySpellChecker.removeDictionary(s);
-                        }
-                        else if (!dictionaryIsLoad && dictionaryShouldBeLoad) {
-                            mySpellChecker.loadDictionary(new FileLoader(s, s));
-                        }
+                SPFileUtil.processFilesRecursively(folder, s -> {
+                    if (!disabledDictionaries.contains(s)) {
+                        paths.add(s);
                     }
-                );
+                });
             }
         }
 
-        if (removedDictionaries != null && !removedDictionaries.isEmpty()) {
-            for (String name : removedDictionaries) {
-                mySpellChecker.removeDictionary(name);
+        List<FolderDictionaryUpdate> updates = new ArrayList<>();
+        myFolderDictionaries.forEach((path, stamp) -> {
+            if (!paths.contains(path)) {
+                updates.add(FolderDictionaryUpdate.removal(path, stamp));
             }
+        });
+        for (String path : paths) {
+            updates.add(FolderDictionaryUpdate.of(path, myFolderDictionaries.get(path)));
         }
+        return updates;
+    }
 
-        restartInspections();
+    /**
+     * Reacts on files of the dictionary folders changed outside of settings
+     */
+    private void folderDictionariesChanged(@Nonnull Set<String> paths) {
+        if (myProject.isDisposed()) {
+            return;
+        }
+        List<FolderDictionaryUpdate> updates = new ArrayList<>();
+        for (String path : paths) {
+            DictionaryStamp previous = myFolderDictionaries.get(path);
+            if (isEnabledFolderDictionary(path)) {
+                updates.add(FolderDictionaryUpdate.of(path, previous));
+            }
+            else if (previous != null) {
+                updates.add(FolderDictionaryUpdate.removal(path, previous));
+            }
+        }
+        if (applyFolderDictionaries(updates)) {
+            restartProjectInspections();
+        }
+    }
+
+    /**
+     * Loads new folder dictionaries and removes deleted ones. A changed dictionary is replaced only once
+     * the new version is built and restarts highlighting itself then. Updates computed against a stamp
+     * replaced meanwhile are dropped, the newer update wins.
+     *
+     * @return true if any dictionary was loaded or removed
+     */
+    private synchronized boolean applyFolderDictionaries(@Nonnull List<FolderDictionaryUpdate> updates) {
+        if (myProject.isDisposed()) {
+            return false;
+        }
+        boolean changed = false;
+        for (FolderDictionaryUpdate update : updates) {
+            String path = update.path();
+            DictionaryStamp current = myFolderDictionaries.get(path);
+            if (current != update.previous()) {
+                continue;
+            }
+            DictionaryStamp stamp = update.stamp();
+            FileLoader loader = update.loader();
+            if (stamp == null || loader == null) {
+                myFolderDictionaries.remove(path);
+                mySpellChecker.removeDictionary(path);
+                changed = true;
+            }
+            else if (current == null) {
+                myFolderDictionaries.put(path, stamp);
+                mySpellChecker.loadDictionaryLazily(loader);
+                changed = true;
+            }
+            else if (!current.hasSameContent(stamp)) {
+                myFolderDictionaries.put(path, stamp);
+                LOG.debug("Reloading changed dictionary " + path);
+                mySpellChecker.replaceDictionary(loader, this::restartProjectInspections);
+            }
+            else {
+                myFolderDictionaries.put(path, stamp);
+            }
+        }
+        return changed;
+    }
+
+    private boolean isEnabledFolderDictionary(@Nonnull String path) {
+        if (settings == null || settings.getDictionaryFoldersPaths() == null || settings.getDisabledDictionariesPaths().contains(path)) {
+            return false;
+        }
+        File file = new File(path);
+        if (!file.isFile()) {
+            return false;
+        }
+        for (String folder : settings.getDictionaryFoldersPaths()) {
+            if (file.toPath().startsWith(new File(folder).toPath())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Starts watching configured dictionary folders, or restarts it if the folders changed
+     */
+    private synchronized void watchFolders() {
+        List<String> folders = settings == null || settings.getDictionaryFoldersPaths() == null
+            ? List.of()
+            : List.copyOf(settings.getDictionaryFoldersPaths());
+        if (folders.equals(myWatchedFolders) && (myFolderWatcher != null || folders.isEmpty())) {
+            return;
+        }
+        stopWatchingFolders();
+        myWatchedFolders = folders;
+        if (folders.isEmpty() || myProject.getApplication().isUnitTestMode()) {
+            return;
+        }
+        try {
+            myFolderWatcher = new DictionaryFolderWatcher(folders, FOLDER_EVENTS_DEBOUNCE_MILLIS, this::folderDictionariesChanged);
+        }
+        catch (IOException e) {
+            LOG.warn("Couldn't watch dictionary folders", e);
+        }
+    }
+
+    private synchronized void stopWatchingFolders() {
+        if (myFolderWatcher != null) {
+            try {
+                myFolderWatcher.close();
+            }
+            catch (IOException e) {
+                LOG.warn(e);
+            }
+            myFolderWatcher = null;
+        }
+        myWatchedFolders = List.of();
     }
 
     public Project getProject() {
@@ -144,27 +416,26 @@ public class SpellCheckerManager {
             //do nothing - in this loader we don't worry about word list itself - the whole dictionary will be restored
         });
         List<Loader> loaders = new ArrayList<>();
+        List<Loader> folderLoaders = new ArrayList<>();
         // Load bundled dictionaries from corresponding jars
         myProject.getApplication().getExtensionPoint(BundledDictionaryProvider.class).forEach(provider -> {
             for (String dictionary : provider.getBundledDictionaries()) {
                 if (settings == null || !settings.getBundledDisabledDictionariesPaths().contains(dictionary)) {
-                    Class<? extends BundledDictionaryProvider> loaderClass = provider.getClass();
-                    InputStream stream = loaderClass.getResourceAsStream(dictionary);
-                    if (stream != null) {
-                        loaders.add(new StreamLoader(stream, dictionary));
-                    }
-                    else {
-                        LOG.warn("Couldn't load dictionary '" + dictionary + "' with loader '" + loaderClass + "'");
+                    Loader loader = createBundledLoader(provider, dictionary);
+                    if (loader != null) {
+                        loaders.add(loader);
                     }
                 }
             }
         });
+        myFolderDictionaries.clear();
         if (settings != null && settings.getDictionaryFoldersPaths() != null) {
             Set<String> disabledDictionaries = settings.getDisabledDictionariesPaths();
             for (String folder : settings.getDictionaryFoldersPaths()) {
                 SPFileUtil.processFilesRecursively(folder, s -> {
                     if (!disabledDictionaries.contains(s)) {
-                        loaders.add(new FileLoader(s, s));
+                        folderLoaders.add(new FileLoader(s, s));
+                        myFolderDictionaries.put(s, DictionaryStamp.of(s));
                     }
                 });
             }
@@ -173,26 +444,132 @@ public class SpellCheckerManager {
         for (Loader loader : loaders) {
             mySpellChecker.loadDictionary(loader);
         }
+        // folders may hold many rarely used dictionaries
+        for (Loader loader : folderLoaders) {
+            mySpellChecker.loadDictionaryLazily(loader);
+        }
         myUserDictionary = stateLoader.getDictionary();
+        watchFolders();
+    }
+
+    @Nullable
+    private static Loader createBundledLoader(@Nonnull BundledDictionaryProvider provider, @Nonnull String dictionary) {
+        Class<? extends BundledDictionaryProvider> loaderClass = provider.getClass();
+        InputStream stream = loaderClass.getResourceAsStream(dictionary);
+        if (stream == null) {
+            LOG.warn("Couldn't load dictionary '" + dictionary + "' with loader '" + loaderClass + "'");
+            return null;
+        }
+        String sourceId = loaderClass.getName() + ":" + dictionary;
+        PluginDescriptor plugin = PluginManager.getPlugin(loaderClass);
+        String version = plugin == null ? null : plugin.getVersion();
+        // bundled content changes only with the plugin, except snapshot builds whose content is hashed
+        String contentKey = version == null || version.endsWith("SNAPSHOT") ? null : sourceId + "@" + version;
+        return new StreamLoader(stream, dictionary, sourceId, contentKey);
+    }
+
+    /**
+     * Restarts highlighting of the file once dictionaries are loaded, if they are still loading
+     */
+    public void restartWhenDictionariesLoaded(@Nonnull PsiFile file) {
+        if (!mySpellChecker.isLoading()) {
+            return;
+        }
+        boolean first;
+        synchronized (myFilesToRestart) {
+            first = myFilesToRestart.isEmpty();
+            myFilesToRestart.add(file);
+        }
+        if (first) {
+            mySpellChecker.whenLoaded(this::restartAnalyzedFiles);
+        }
+    }
 
+    private void restartAnalyzedFiles() {
+        List<PsiFile> files;
+        synchronized (myFilesToRestart) {
+            files = new ArrayList<>(myFilesToRestart);
+            myFilesToRestart.clear();
+        }
+        LOG.debug("Dictionaries loaded, restarting " + files.size() + " files");
+        myProject.getApplication().invokeLater(() -> {
+            if (myProject.isDisposed()) {
+                return;
+            }
+            DaemonCodeAnalyzer analyzer = DaemonCodeAnalyzer.getInstance(myProject);
+            for (PsiFile file : files) {
+                if (file.isValid()) {
+                    analyzer.restart(file);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return application wide costs of the spellchecker, collected only with {@code -Dspellchecker.statistics=true}
+     */
+    @Nonnull
+    public SpellCheckerStatistics getStatistics() {
+        return myProject.getApplication().getInstance(SpellCheckerStatistics.class);
+    }
+
+    /**
+     * @return true while some dictionaries are still loading, {@link #hasProblem} doesn't report words absent in the loaded ones then
+     */
+    public boolean isLoadingDictionaries() {
+        return mySpellChecker.isLoading();
+    }
+
+    /**
+     * @return generation of the dictionaries, incremented after every change which may change answers of {@link #hasProblem}
+     */
+    public long getModificationCount() {
+        return myGeneration.get();
     }
 
     public boolean hasProblem(@Nonnull String word) {
-        return !mySpellChecker.isCorrect(word);
+        SpellCheckerEngine spellChecker = mySpellChecker;
+        String transformed = VERDICT_CACHE_SIZE > 0 ? spellChecker.getTransformation().transform(word) : null;
+        if (transformed == null) {
+            return !spellChecker.isCorrect(word);
+        }
+        // read before checking, so a verdict computed against changing dictionaries is tagged with the outdated generation
+        long generation = myGeneration.get();
+        Boolean correct = myVerdicts.get(transformed, generation);
+        if (correct == null) {
+            correct = spellChecker.isCorrect(word);
+            // words are accepted until all dictionaries are loaded, so such verdicts are not cached
+            if (!spellChecker.isLoading()) {
+                myVerdicts.put(transformed, correct, generation);
+            }
+        }
+        return !correct;
     }
 
     @RequiredWriteAction
     public void acceptWordAsCorrect(@Nonnull String word, Project project) {
-        String transformed = mySpellChecker.getTransformation().transform(word);
-        if (transformed != null) {
-            myUserDictionary.addToDictionary(transformed);
+        if (acceptWord(word)) {
             PsiModificationTracker modificationTracker = PsiManager.getInstance(project).getModificationTracker();
             modificationTracker.incCounter();
         }
     }
 
+    /**
+     * @return true if the word was added to the user dictionary
+     */
+    boolean acceptWord(@Nonnull String word) {
+        String transformed = mySpellChecker.getTransformation().transform(word);
+        if (transformed == null) {
+            return false;
+        }
+        myUserDictionary.addToDictionary(transformed);
+        myGeneration.incrementAndGet();
+        return true;
+    }
+
     public void updateUserDictionary(@Nullable Collection<String> words) {
         myUserDictionary.replaceAll(words);
+        myGeneration.incrementAndGet();
         restartInspections();
     }
 
@@ -233,6 +610,23 @@ public class SpellCheckerManager {
         return Collections.emptyList();
     }
 
+    @Override
+    public void dispose() {
+        stopWatchingFolders();
+        // release shared dictionaries of this project
+        mySpellChecker.reset();
+    }
+
+    private void restartProjectInspections() {
+        // engines are not required to notify change listeners
+        myGeneration.incrementAndGet();
+        myProject.getApplication().invokeLater(() -> {
+            if (!myProject.isDisposed()) {
+                DaemonCodeAnalyzer.getInstance(myProject).restart();
+            }
+        });
+    }
+
     public static void restartInspections() {
         Application.get().invokeLater(() -> {
             Project[] projects = ProjectManager.getInstance().getOpenProjects();
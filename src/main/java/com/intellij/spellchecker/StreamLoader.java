@@ -16,12 +16,18 @@
 package com.intellij.spellchecker;
 
 import com.intellij.spellchecker.dictionary.Loader;
+import com.intellij.spellchecker.util.LineReader;
 import consulo.logging.Logger;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 
-import java.io.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.function.Consumer;
 
 public class StreamLoader implements Loader {
@@ -29,10 +35,30 @@ public class StreamLoader implements Loader {
 
     private final InputStream stream;
     private final String name;
+    @Nullable
+    private final String sourceId;
+    @Nullable
+    private final String contentKey;
+    private byte[] content;
+    private String contentHash;
 
     public StreamLoader(InputStream stream, String name) {
+        this(stream, name, null);
+    }
+
+    public StreamLoader(InputStream stream, String name, @Nullable String sourceId) {
+        this(stream, name, sourceId, null);
+    }
+
+    /**
+     * @param contentKey identity of the content known without reading it, e.g. the resource path with the plugin version,
+     *                   the content is hashed if it's {@code null}
+     */
+    public StreamLoader(InputStream stream, String name, @Nullable String sourceId, @Nullable String contentKey) {
         this.stream = stream;
         this.name = name;
+        this.sourceId = sourceId;
+        this.contentKey = contentKey;
     }
 
     @Override
@@ -40,30 +66,74 @@ public class StreamLoader implements Loader {
         return name;
     }
 
+    @Nullable
+    @Override
+    public String getSourceId() {
+        return sourceId;
+    }
+
+    @Nullable
+    @Override
+    public synchronized String getContentHash() {
+        if (contentHash == null) {
+            byte[] bytes = contentKey != null ? contentKey.getBytes(StandardCharsets.UTF_8) : getContent();
+            contentHash = bytes == null ? null : hash(bytes);
+        }
+        return contentHash;
+    }
+
+    @Override
+    public boolean isContentHashKnown() {
+        return sourceId != null && contentKey != null;
+    }
+
     @Override
     public void load(@Nonnull Consumer<String> consumer) {
-        DataInputStream in = new DataInputStream(stream);
-        BufferedReader br = null;
+        loadLines(line -> consumer.accept(line.toString()));
+    }
 
+    @Override
+    public void loadLines(@Nonnull Consumer<? super CharSequence> consumer) {
+        byte[] bytes = getContent();
+        if (bytes == null) {
+            return;
+        }
         try {
-            br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
-            String strLine;
-            while ((strLine = br.readLine()) != null) {
-                consumer.accept(strLine);
-            }
+            LineReader.readLines(ByteBuffer.wrap(bytes), consumer);
         }
         catch (Exception e) {
             LOG.error(e);
         }
-        finally {
-            if (br != null) {
-                try {
-                    br.close();
-                }
-                catch (IOException ignored) {
-                }
+    }
+
+    /**
+     * Stream is read only once, so the content could be both hashed and parsed
+     */
+    @Nullable
+    private synchronized byte[] getContent() {
+        if (content == null) {
+            try (InputStream in = stream) {
+                content = in.readAllBytes();
+            }
+            catch (IOException e) {
+                LOG.error(e);
+            }
+        }
+        return content;
+    }
+
+    @Nonnull
+    static String hash(@Nonnull byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder result = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
             }
+            return result.toString();
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 }
-
@@ -18,10 +18,19 @@ package com.intellij.spellchecker.compress;
 import jakarta.annotation.Nonnull;
 
 public final class Alphabet {
+    private static final int LATIN_TABLE_SIZE = 256;
+    // open addressing table size for other letters, power of two and at least twice larger than MAX_INDEX
+    private static final int TABLE_SIZE = 512;
+
     private final char[] letters;
     private int lastIndexUsed = 0;
     private static final int MAX_INDEX = UnitBitSet.MAX_UNIT_VALUE;
 
+    // reverse index of first occurrence of a letter, 0 if absent
+    private final byte[] latinIndices = new byte[LATIN_TABLE_SIZE];
+    private char[] tableLetters;
+    private byte[] tableIndices;
+
     public char getLetter(int position) {
         return letters[position];
     }
@@ -39,12 +48,19 @@ public final class Alphabet {
      * @return index of the letter or -1 if letter was not found and could not be added (due to forceAdd property value)
      */
     public int getNextIndex(int startFrom, char letter, boolean forceAdd) {
-        for (int i = startFrom; i <= lastIndexUsed; i++) {
-            if (i == letters.length) {
-                return -1;
-            }
-            if (letters[i] != 0 && letters[i] == letter) {
-                return i;
+        int index = lookup(letter);
+        if (index != 0 && index >= startFrom) {
+            return index;
+        }
+        if (index != 0) {
+            // letter could be added more than once via add(), look for the later occurrence
+            for (int i = startFrom; i <= lastIndexUsed; i++) {
+                if (i == letters.length) {
+                    return -1;
+                }
+                if (letters[i] != 0 && letters[i] == letter) {
+                    return i;
+                }
             }
         }
         if (!forceAdd) {
@@ -63,9 +79,50 @@ public final class Alphabet {
         }
         lastIndexUsed++;
         letters[lastIndexUsed] = c;
+        if (c != 0 && lookup(c) == 0) {
+            register(c, lastIndexUsed);
+        }
         return lastIndexUsed;
     }
 
+    private int lookup(char letter) {
+        if (letter < LATIN_TABLE_SIZE) {
+            return latinIndices[letter] & 0xFF;
+        }
+        if (tableLetters == null) {
+            return 0;
+        }
+        int mask = TABLE_SIZE - 1;
+        for (int slot = hash(letter) & mask; ; slot = (slot + 1) & mask) {
+            int index = tableIndices[slot] & 0xFF;
+            if (index == 0 || tableLetters[slot] == letter) {
+                return index;
+            }
+        }
+    }
+
+    private void register(char letter, int index) {
+        if (letter < LATIN_TABLE_SIZE) {
+            latinIndices[letter] = (byte) index;
+            return;
+        }
+        if (tableLetters == null) {
+            tableLetters = new char[TABLE_SIZE];
+            tableIndices = new byte[TABLE_SIZE];
+        }
+        int mask = TABLE_SIZE - 1;
+        int slot = hash(letter) & mask;
+        while (tableIndices[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        tableLetters[slot] = letter;
+        tableIndices[slot] = (byte) index;
+    }
+
+    private static int hash(char letter) {
+        return letter * 0x9E3779B1 >>> 23;
+    }
+
     Alphabet() {
         this(MAX_INDEX);
     }
@@ -75,7 +132,6 @@ public final class Alphabet {
         letters = new char[maxIndex];
     }
 
-    // TODO: this should be ONLY way to create it to sped up getIndex
     Alphabet(@Nonnull CharSequence alphabet) {
         this(alphabet.length() + 1);
         for (int i = 0; i < alphabet.length(); i++) {
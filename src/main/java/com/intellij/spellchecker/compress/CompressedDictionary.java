@@ -18,70 +18,96 @@ package com.intellij.spellchecker.compress;
 import com.intellij.spellchecker.dictionary.Dictionary;
 import com.intellij.spellchecker.dictionary.Loader;
 import com.intellij.spellchecker.engine.Transformation;
-import consulo.util.collection.ArrayUtil;
-import consulo.util.collection.primitive.ints.IntMaps;
-import consulo.util.collection.primitive.ints.IntObjectMap;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.function.Consumer;
 
 public final class CompressedDictionary implements Dictionary {
     private final Alphabet alphabet;
-    private int wordsCount;
-    private byte[][] words;
-    private int[] lengths;
+    private final int wordsCount;
+    private final ByteBuffer[] words;
+    private final int[] lengths;
+    // rows indexed directly by packed word length, null for absent lengths
+    private ByteBuffer[] wordsByLength;
+    // rows of every length are grouped by first letter: rows of letter L are [offsets[L], offsets[L + 1])
+    private int[][] letterOffsetsByLength;
+    // global number of the first row of every bucket, rows numbers are word ids of the suggestion index
+    private int[] firstRows;
+    private int[] firstRowsByLength;
+    private volatile SuggestionIndex suggestionIndex;
+    private boolean suggestionIndexBuilt;
 
     private final Encoder encoder;
     private final String name;
 
-    private IntObjectMap<SortedSet<byte[]>> rawData = IntMaps.newIntObjectHashMap();
-    private static final Comparator<byte[]> COMPARATOR = CompressedDictionary::compareArrays;
+    private static final class ProbeBuffer {
+        private final byte[] indices = new byte[UnitBitSet.MAX_CHARS_IN_WORD];
+        private final byte[] packed = new byte[UnitBitSet.MAX_CHARS_IN_WORD];
+    }
+
+    static final int ABSENT = -1;
+    static final int UNKNOWN_LETTERS = -2;
+
+    private static final ThreadLocal<ProbeBuffer> PROBE_BUFFER = ThreadLocal.withInitial(ProbeBuffer::new);
 
-    private CompressedDictionary(@Nonnull Alphabet alphabet, @Nonnull Encoder encoder, @Nonnull String name) {
+    /**
+     * Creates dictionary over already packed rows sorted by {@link CompressedDictionaryBuilder#sortRows},
+     * see {@link CompressedDictionaryFormat}
+     */
+    CompressedDictionary(@Nonnull Alphabet alphabet, @Nonnull String name, int wordsCount, @Nonnull int[] lengths, @Nonnull ByteBuffer[] words) {
         this.alphabet = alphabet;
-        this.encoder = encoder;
+        this.encoder = new Encoder(alphabet);
         this.name = name;
+        this.wordsCount = wordsCount;
+        this.lengths = lengths;
+        this.words = words;
+        index();
     }
 
-    private void addToDictionary(@Nonnull byte[] word) {
-        SortedSet<byte[]> set = rawData.get(word.length);
-        if (set == null) {
-            set = createSet();
-            rawData.put(word.length, set);
+    private void index() {
+        int maxLength = 0;
+        for (int length : lengths) {
+            maxLength = Math.max(maxLength, length);
         }
-        set.add(word);
-        wordsCount++;
-    }
-
-    private void pack() {
-        lengths = new int[rawData.size()];
-        words = new byte[rawData.size()][];
-
-        int[] rowWrapper = new int[1];
-
-        rawData.forEach((length, value) -> {
-            int row = rowWrapper[0];
-
-            lengths[row] = length;
-            words[row] = new byte[value.size() * length];
-            int k = 0;
-            byte[] wordBytes = words[row];
-            for (byte[] bytes : value) {
-                assert bytes.length == length;
-                System.arraycopy(bytes, 0, wordBytes, k, bytes.length);
-                k += bytes.length;
+        wordsByLength = new ByteBuffer[maxLength + 1];
+        letterOffsetsByLength = new int[maxLength + 1][];
+        firstRows = new int[lengths.length + 1];
+        firstRowsByLength = new int[maxLength + 1];
+        int lettersCount = alphabet.getLastIndexUsed() + 1;
+        for (int i = 0; i < lengths.length; i++) {
+            int length = lengths[i];
+            ByteBuffer data = words[i];
+            int[] offsets = new int[lettersCount + 1];
+            int rowsCount = data.limit() / length;
+            int from = 0;
+            for (int letter = 0; letter < lettersCount; letter++) {
+                offsets[letter] = from;
+                from = findFirstRowAfterLetter(data, length, letter, from, rowsCount);
             }
-
-            rowWrapper[0]++;
-        });
-        rawData = null;
+            offsets[lettersCount] = rowsCount;
+            wordsByLength[length] = data;
+            letterOffsetsByLength[length] = offsets;
+            firstRowsByLength[length] = firstRows[i];
+            firstRows[i + 1] = firstRows[i] + rowsCount;
+        }
     }
 
-    @Nonnull
-    private static SortedSet<byte[]> createSet() {
-        return new TreeSet<>(COMPARATOR);
+    private int findFirstRowAfterLetter(@Nonnull ByteBuffer data, int length, int letter, int from, int to) {
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+            int mid = low + high >>> 1;
+            if (encoder.getFirstLetterIndex(data.get(mid * length)) <= letter) {
+                low = mid + 1;
+            }
+            else {
+                high = mid - 1;
+            }
+        }
+        return low;
     }
 
     @Nonnull
@@ -91,21 +117,17 @@ public final class CompressedDictionary implements Dictionary {
         if (index == -1) {
             return result;
         }
-        int i = 0;
-        for (byte[] data : words) {
-            int length = lengths[i];
+        for (int length : lengths) {
             if (length < minLength || length > maxLength) {
                 continue;
             }
-            for (int x = 0; x < data.length; x += length) {
-                if (encoder.getFirstLetterIndex(data[x]) == index) {
-                    byte[] toTest = new byte[length];
-                    System.arraycopy(data, x, toTest, 0, length);
-                    String decoded = encoder.decode(toTest);
-                    result.add(decoded);
-                }
+            ByteBuffer data = wordsByLength[length];
+            int[] offsets = letterOffsetsByLength[length];
+            for (int row = offsets[index]; row < offsets[index + 1]; row++) {
+                byte[] toTest = new byte[length];
+                data.get(row * length, toTest);
+                result.add(encoder.decode(toTest));
             }
-            i++;
         }
         return result;
     }
@@ -124,17 +146,59 @@ public final class CompressedDictionary implements Dictionary {
     @Override
     @Nullable
     public Boolean contains(@Nonnull String word) {
-        UnitBitSet bs = encoder.encode(word, false);
-        if (bs == Encoder.WORD_OF_ENTIRELY_UNKNOWN_LETTERS) {
-            return null;
+        return contains(word, 0, word.length());
+    }
+
+    /**
+     * Allocation free membership check of lowercased {@code text[start, end)}: letters are encoded and packed into
+     * a reusable thread local buffer which is compared against packed rows directly.
+     *
+     * @return {@code null} if all letters are unknown for this dictionary, same as {@link #contains(String)}
+     */
+    @Nullable
+    public Boolean contains(@Nonnull CharSequence text, int start, int end) {
+        int row = findRow(text, start, end);
+        return row == UNKNOWN_LETTERS ? null : row >= 0;
+    }
+
+    /**
+     * Same lookup as {@link #contains(CharSequence, int, int)}
+     *
+     * @return global row of the word, {@link #ABSENT} or {@link #UNKNOWN_LETTERS} if all letters are unknown
+     */
+    int findRow(@Nonnull CharSequence text, int start, int end) {
+        int length = end - start;
+        if (UnitBitSet.MAX_CHARS_IN_WORD <= length) {
+            return ABSENT;
         }
-        if (bs == null) {
-            return false;
+        ProbeBuffer buffer = PROBE_BUFFER.get();
+        byte[] indices = buffer.indices;
+        int unknownLetters = 0;
+        for (int i = 0; i < length; i++) {
+            int index = alphabet.getIndex(Character.toLowerCase(text.charAt(start + i)), false);
+            if (index < 0) {
+                unknownLetters++;
+            }
+            else {
+                indices[i] = (byte) index;
+            }
         }
-        //TODO throw new EncodingException("WORD_WITH_SOME_UNKNOWN_LETTERS");
-        byte[] compressed = bs.pack();
-        int index = ArrayUtil.indexOf(lengths, compressed.length);
-        return index != -1 && contains(compressed, words[index]);
+        if (unknownLetters == length) {
+            return UNKNOWN_LETTERS;
+        }
+        if (unknownLetters > 0) {
+            //TODO throw new EncodingException("WORD_WITH_SOME_UNKNOWN_LETTERS");
+            return ABSENT;
+        }
+        byte[] packed = buffer.packed;
+        int packedLength = UnitBitSet.pack(indices, length, UnitBitSet.getMeaningfulBits(alphabet), packed);
+        if (packedLength >= wordsByLength.length || wordsByLength[packedLength] == null) {
+            return ABSENT;
+        }
+        int[] offsets = letterOffsetsByLength[packedLength];
+        int first = indices[0] & 0xFF;
+        int row = binarySearch(packed, packedLength, offsets[first], offsets[first + 1], wordsByLength[packedLength]);
+        return row < 0 ? ABSENT : firstRowsByLength[packedLength] + row;
     }
 
     @Override
@@ -144,7 +208,10 @@ public final class CompressedDictionary implements Dictionary {
 
     @Override
     public void traverse(@Nonnull Consumer<String> action) {
-        throw new UnsupportedOperationException();
+        int rowsCount = getRowsCount();
+        for (int row = 0; row < rowsCount; row++) {
+            action.accept(getWord(row));
+        }
     }
 
     @Override
@@ -162,6 +229,83 @@ public final class CompressedDictionary implements Dictionary {
         return wordsCount;
     }
 
+    int getRowsCount() {
+        return firstRows[lengths.length];
+    }
+
+    @Nonnull
+    String getWord(int row) {
+        int bucket = Arrays.binarySearch(firstRows, row);
+        if (bucket < 0) {
+            bucket = -bucket - 2;
+        }
+        else {
+            // skip empty buckets sharing the same first row
+            while (firstRows[bucket + 1] == row) {
+                bucket++;
+            }
+        }
+        int length = lengths[bucket];
+        byte[] bytes = new byte[length];
+        words[bucket].get((row - firstRows[bucket]) * length, bytes);
+        return encoder.decode(bytes);
+    }
+
+    /**
+     * @return index built by {@link #buildSuggestionIndex}, {@code null} until then or if it didn't fit into memory limit
+     */
+    @Nullable
+    public SuggestionIndex getSuggestionIndex() {
+        return suggestionIndex;
+    }
+
+    /**
+     * Builds {@link SuggestionIndex} once, lowering the distance when building the index for {@code maxDistance} exceeds
+     * {@code memoryLimit} bytes. Takes a while for big dictionaries, so should be called in background.
+     */
+    public synchronized void buildSuggestionIndex(int maxDistance, long memoryLimit) {
+        if (suggestionIndexBuilt) {
+            return;
+        }
+        suggestionIndexBuilt = true;
+        for (int distance = maxDistance; distance > 0 && suggestionIndex == null; distance--) {
+            suggestionIndex = SuggestionIndex.build(this, distance, memoryLimit);
+        }
+    }
+
+    /**
+     * @return estimated size of the packed rows, their index and the built {@link SuggestionIndex} in bytes
+     */
+    public long getMemorySize() {
+        long size = 0;
+        for (ByteBuffer rows : words) {
+            size += rows.capacity();
+        }
+        for (int[] offsets : letterOffsetsByLength) {
+            if (offsets != null) {
+                size += (long) offsets.length * Integer.BYTES;
+            }
+        }
+        size += (long) (firstRows.length + firstRowsByLength.length + lengths.length) * Integer.BYTES;
+        SuggestionIndex index = suggestionIndex;
+        return index == null ? size : size + index.getMemorySize();
+    }
+
+    @Nonnull
+    Alphabet getAlphabet() {
+        return alphabet;
+    }
+
+    @Nonnull
+    int[] getLengths() {
+        return lengths;
+    }
+
+    @Nonnull
+    ByteBuffer[] getRows() {
+        return words;
+    }
+
 
     @Override
     public String toString() {
@@ -173,26 +317,7 @@ public final class CompressedDictionary implements Dictionary {
 
     @Nonnull
     public static CompressedDictionary create(@Nonnull Loader loader, @Nonnull Transformation transform) {
-        Alphabet alphabet = new Alphabet();
-        Encoder encoder = new Encoder(alphabet);
-        CompressedDictionary dictionary = new CompressedDictionary(alphabet, encoder, loader.getName());
-        List<UnitBitSet> bss = new ArrayList<>();
-        loader.load(s -> {
-            String transformed = transform.transform(s);
-            if (transformed != null) {
-                UnitBitSet bs = encoder.encode(transformed, true);
-                if (bs == null) {
-                    return;
-                }
-                bss.add(bs);
-            }
-        });
-        for (UnitBitSet bs : bss) {
-            byte[] compressed = bs.pack();
-            dictionary.addToDictionary(compressed);
-        }
-        dictionary.pack();
-        return dictionary;
+        return CompressedDictionaryBuilder.build(loader, transform);
     }
 
     public static int compareArrays(@Nonnull byte[] array1, @Nonnull byte[] array2) {
@@ -216,10 +341,42 @@ public final class CompressedDictionary implements Dictionary {
         return 0;
     }
 
+    private static int compareArrays(@Nonnull ByteBuffer data, int start, @Nonnull byte[] goal, int goalLength) {
+        for (int i = 0; i < goalLength; i++) {
+            int d = data.get(i + start) - goal[i];
+            if (d < 0) {
+                return -1;
+            }
+            else if (d > 0) {
+                return 1;
+            }
+        }
+        return 0;
+    }
+
     public static boolean contains(@Nonnull byte[] goal, @Nonnull byte[] data) {
         return binarySearchNew(goal, 0, data.length / goal.length, data) >= 0;
     }
 
+    private static int binarySearch(@Nonnull byte[] goal, int unitLength, int fromIndex, int toIndex, @Nonnull ByteBuffer data) {
+        int low = fromIndex;
+        int high = toIndex - 1;
+        while (low <= high) {
+            int mid = low + high >>> 1;
+            int check = compareArrays(data, mid * unitLength, goal, unitLength);
+            if (check == -1) {
+                low = mid + 1;
+            }
+            else if (check == 1) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        return -(low + 1); // key not found.
+    }
+
     public static int binarySearchNew(@Nonnull byte[] goal, int fromIndex, int toIndex, @Nonnull byte[] data) {
         int unitLength = goal.length;
         int low = fromIndex;
@@ -0,0 +1,197 @@
+package com.intellij.spellchecker.compress;
+
+import com.intellij.spellchecker.dictionary.Loader;
+import com.intellij.spellchecker.engine.Transformation;
+import jakarta.annotation.Nonnull;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Builds {@link CompressedDictionary} in two passes without per word objects.
+ * <p>
+ * The first pass streams transformed lines from {@link Loader#loadLines} into a single arena of letter indices,
+ * growing the alphabet. Once the alphabet is complete, the second pass packs every word straight into an exactly sized
+ * arena of its packed length, which is then radix sorted in place into the searched order and deduplicated.
+ *
+ * @since 2026-10-17
+ */
+final class CompressedDictionaryBuilder {
+    // "direct" keeps packed rows outside of the heap, like rows mapped from a compiled dictionary
+    private static final boolean DIRECT_ROWS = "direct".equals(System.getProperty("spellchecker.rows.storage"));
+
+    private final Alphabet myAlphabet = new Alphabet();
+
+    private byte[] myIndices = new byte[1 << 16];
+    private int myIndicesSize;
+    // end of every word in myIndices
+    private int[] myWordEnds = new int[1 << 12];
+    private int myWordsCount;
+
+    @Nonnull
+    static CompressedDictionary build(@Nonnull Loader loader, @Nonnull Transformation transform) {
+        CompressedDictionaryBuilder builder = new CompressedDictionaryBuilder();
+        StringBuilder buffer = new StringBuilder();
+        loader.loadLines(word -> {
+            CharSequence transformed = transform.transform(word, buffer);
+            if (transformed != null) {
+                builder.addWord(transformed);
+            }
+        });
+        return builder.pack(loader.getName());
+    }
+
+    private void addWord(@Nonnull CharSequence word) {
+        int length = word.length();
+        if (length == 0 || UnitBitSet.MAX_CHARS_IN_WORD <= length) {
+            return;
+        }
+        if (myIndicesSize + length > myIndices.length) {
+            myIndices = Arrays.copyOf(myIndices, Math.max(myIndices.length * 2, myIndicesSize + length));
+        }
+        for (int i = 0; i < length; i++) {
+            int index = myAlphabet.getIndex(word.charAt(i), true);
+            if (index < 0) {
+                // alphabet is full
+                return;
+            }
+            myIndices[myIndicesSize + i] = (byte) index;
+        }
+        myIndicesSize += length;
+        if (myWordsCount == myWordEnds.length) {
+            myWordEnds = Arrays.copyOf(myWordEnds, myWordsCount * 2);
+        }
+        myWordEnds[myWordsCount++] = myIndicesSize;
+    }
+
+    @Nonnull
+    private CompressedDictionary pack(@Nonnull String name) {
+        int meaningfulBits = UnitBitSet.getMeaningfulBits(myAlphabet);
+
+        int[] rowsCount = new int[UnitBitSet.MAX_CHARS_IN_WORD + 1];
+        int bucketsCount = 0;
+        for (int word = 0, start = 0; word < myWordsCount; start = myWordEnds[word++]) {
+            if (rowsCount[UnitBitSet.getPackedLength(myWordEnds[word] - start, meaningfulBits)]++ == 0) {
+                bucketsCount++;
+            }
+        }
+
+        int[] lengths = new int[bucketsCount];
+        byte[][] rows = new byte[rowsCount.length][];
+        for (int length = 0, bucket = 0; length < rowsCount.length; length++) {
+            if (rowsCount[length] > 0) {
+                lengths[bucket++] = length;
+                rows[length] = new byte[rowsCount[length] * length];
+            }
+        }
+
+        int[] rowsSize = new int[rowsCount.length];
+        for (int word = 0, start = 0; word < myWordsCount; start = myWordEnds[word++]) {
+            int count = myWordEnds[word] - start;
+            int length = UnitBitSet.getPackedLength(count, meaningfulBits);
+            UnitBitSet.pack(myIndices, start, count, meaningfulBits, rows[length], rowsSize[length]);
+            rowsSize[length] += length;
+        }
+        myIndices = null;
+        myWordEnds = null;
+
+        Encoder encoder = new Encoder(myAlphabet);
+        ByteBuffer[] words = new ByteBuffer[bucketsCount];
+        for (int bucket = 0; bucket < bucketsCount; bucket++) {
+            int length = lengths[bucket];
+            byte[] sorted = sortRows(rows[length], length, encoder);
+            rows[length] = null;
+            int size = removeDuplicateRows(sorted, length);
+            words[bucket] = ByteBuffer.wrap(sorted, 0, size).slice();
+        }
+        return new CompressedDictionary(myAlphabet, name, myWordsCount, lengths, DIRECT_ROWS ? toDirect(words) : words);
+    }
+
+    /**
+     * Copies all buckets into a single direct buffer, so the heap keeps only the slice objects
+     */
+    @Nonnull
+    static ByteBuffer[] toDirect(@Nonnull ByteBuffer[] words) {
+        int size = 0;
+        for (ByteBuffer bucket : words) {
+            size += bucket.limit();
+        }
+        ByteBuffer direct = ByteBuffer.allocateDirect(size);
+        ByteBuffer[] result = new ByteBuffer[words.length];
+        int offset = 0;
+        for (int bucket = 0; bucket < words.length; bucket++) {
+            int limit = words[bucket].limit();
+            direct.put(offset, words[bucket], 0, limit);
+            result[bucket] = direct.slice(offset, limit);
+            offset += limit;
+        }
+        return result;
+    }
+
+    /**
+     * LSD radix sort of fixed width rows: by every byte as signed from the last one, then stable by the first letter,
+     * which gives rows grouped by the first letter and ordered by {@link CompressedDictionary#compareArrays} inside
+     *
+     * @return array with sorted rows, either {@code rows} or a new one
+     */
+    @Nonnull
+    static byte[] sortRows(@Nonnull byte[] rows, int rowLength, @Nonnull Encoder encoder) {
+        int rowsCount = rows.length / rowLength;
+        byte[] buffer = new byte[rows.length];
+        int[] offsets = new int[257];
+        for (int column = rowLength; column >= 0; column--) {
+            Arrays.fill(offsets, 0);
+            for (int row = 0; row < rowsCount; row++) {
+                offsets[getKey(rows, row * rowLength, column, encoder) + 1]++;
+            }
+            if (isSingleKey(offsets, rowsCount)) {
+                continue;
+            }
+            for (int key = 0; key < 256; key++) {
+                offsets[key + 1] += offsets[key];
+            }
+            for (int row = 0; row < rowsCount; row++) {
+                int from = row * rowLength;
+                int to = offsets[getKey(rows, from, column, encoder)]++ * rowLength;
+                System.arraycopy(rows, from, buffer, to, rowLength);
+            }
+            byte[] swap = rows;
+            rows = buffer;
+            buffer = swap;
+        }
+        return rows;
+    }
+
+    /**
+     * @param column byte number or {@code 0} for the first letter preceding all bytes
+     */
+    private static int getKey(@Nonnull byte[] rows, int rowStart, int column, @Nonnull Encoder encoder) {
+        return column == 0 ? encoder.getFirstLetterIndex(rows[rowStart]) : rows[rowStart + column - 1] + 128;
+    }
+
+    private static boolean isSingleKey(@Nonnull int[] counts, int rowsCount) {
+        for (int count : counts) {
+            if (count != 0) {
+                return count == rowsCount;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return size of sorted {@code rows} without adjacent duplicates
+     */
+    private static int removeDuplicateRows(@Nonnull byte[] rows, int rowLength) {
+        int size = 0;
+        for (int from = 0; from < rows.length; from += rowLength) {
+            if (size > 0 && Arrays.equals(rows, size - rowLength, size, rows, from, from + rowLength)) {
+                continue;
+            }
+            if (size != from) {
+                System.arraycopy(rows, from, rows, size, rowLength);
+            }
+            size += rowLength;
+        }
+        return size;
+    }
+}
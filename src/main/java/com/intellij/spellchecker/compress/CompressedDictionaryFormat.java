@@ -0,0 +1,181 @@
+package com.intellij.spellchecker.compress;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Versioned binary form of a packed {@link CompressedDictionary}.
+ * <p>
+ * Layout (big endian): magic, version, words count, alphabet letters, bucket table of (packed length, rows count),
+ * CRC32C of the header and then rows of every bucket one after another exactly as they are searched in memory:
+ * grouped by first letter and sorted within the group, followed by CRC32C of the rows.
+ * {@link #read} maps the file, checks only the header and reads rows in place, so only the header pages are touched
+ * on startup and mapped pages are shared between processes through the OS page cache.
+ * Rows are checked separately by {@link #verify}, which reads the whole file.
+ *
+ * @since 2026-10-17
+ */
+public final class CompressedDictionaryFormat {
+    private static final int MAGIC = 0x53504443; // SPDC
+    public static final int VERSION = 4;
+
+    private record Header(int wordsCount, @Nonnull String letters, @Nonnull int[] lengths, @Nonnull int[] counts, int rowsOffset) {
+    }
+
+    private CompressedDictionaryFormat() {
+    }
+
+    public static void write(@Nonnull CompressedDictionary dictionary, @Nonnull Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            write(dictionary, out);
+        }
+    }
+
+    public static void write(@Nonnull CompressedDictionary dictionary, @Nonnull DataOutputStream stream) throws IOException {
+        CRC32C checksum = new CRC32C();
+        DataOutputStream out = new DataOutputStream(new CheckedOutputStream(stream, checksum));
+        Alphabet alphabet = dictionary.getAlphabet();
+        int[] lengths = dictionary.getLengths();
+        ByteBuffer[] rows = dictionary.getRows();
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(dictionary.size());
+
+        out.writeInt(alphabet.getLastIndexUsed());
+        for (int i = 1; i <= alphabet.getLastIndexUsed(); i++) {
+            out.writeChar(alphabet.getLetter(i));
+        }
+
+        out.writeInt(lengths.length);
+        for (int i = 0; i < lengths.length; i++) {
+            out.writeInt(lengths[i]);
+            out.writeInt(rows[i].limit() / lengths[i]);
+        }
+        out.flush();
+        stream.writeInt((int) checksum.getValue());
+
+        checksum.reset();
+        for (ByteBuffer row : rows) {
+            byte[] bytes = new byte[row.limit()];
+            row.get(0, bytes);
+            out.write(bytes);
+        }
+        out.flush();
+        stream.writeInt((int) checksum.getValue());
+    }
+
+    @Nonnull
+    public static CompressedDictionary read(@Nonnull Path file, @Nonnull String name) throws IOException {
+        return read(map(file), name);
+    }
+
+    /**
+     * Checks the header, rows are neither read nor checked
+     */
+    @Nonnull
+    public static CompressedDictionary read(@Nonnull ByteBuffer buffer, @Nonnull String name) throws IOException {
+        try {
+            Header header = readHeader(buffer);
+            int bucketsCount = header.lengths().length;
+            ByteBuffer[] rows = new ByteBuffer[bucketsCount];
+            int offset = header.rowsOffset();
+            for (int i = 0; i < bucketsCount; i++) {
+                int size = Math.multiplyExact(header.lengths()[i], header.counts()[i]);
+                rows[i] = buffer.slice(offset, size);
+                offset += size;
+            }
+            return new CompressedDictionary(new Alphabet(header.letters()), name, header.wordsCount(), header.lengths(), rows);
+        }
+        catch (RuntimeException e) {
+            throw new IOException("Corrupted compiled dictionary", e);
+        }
+    }
+
+    public static void verify(@Nonnull Path file) throws IOException {
+        verify(map(file));
+    }
+
+    /**
+     * Checks the rows against their checksum, reads the whole buffer
+     */
+    public static void verify(@Nonnull ByteBuffer buffer) throws IOException {
+        try {
+            int rowsOffset = readHeader(buffer.duplicate()).rowsOffset();
+            int end = buffer.limit() - Integer.BYTES;
+            CRC32C checksum = new CRC32C();
+            checksum.update(buffer.slice(rowsOffset, end - rowsOffset));
+            if ((int) checksum.getValue() != buffer.getInt(end)) {
+                throw new IOException("Compiled dictionary checksum mismatch");
+            }
+        }
+        catch (RuntimeException e) {
+            throw new IOException("Corrupted compiled dictionary", e);
+        }
+    }
+
+    @Nonnull
+    private static MappedByteBuffer map(@Nonnull Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    @Nonnull
+    private static Header readHeader(@Nonnull ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a compiled dictionary");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported compiled dictionary version: " + version);
+        }
+        int wordsCount = buffer.getInt();
+
+        int alphabetSize = buffer.getInt();
+        if (alphabetSize < 0 || alphabetSize > UnitBitSet.MAX_UNIT_VALUE) {
+            throw new IOException("Invalid alphabet size: " + alphabetSize);
+        }
+        StringBuilder letters = new StringBuilder(alphabetSize);
+        for (int i = 0; i < alphabetSize; i++) {
+            letters.append(buffer.getChar());
+        }
+
+        int bucketsCount = buffer.getInt();
+        if (bucketsCount < 0 || bucketsCount > buffer.remaining() / (2 * Integer.BYTES)) {
+            throw new IOException("Invalid buckets count: " + bucketsCount);
+        }
+        int[] lengths = new int[bucketsCount];
+        int[] counts = new int[bucketsCount];
+        long rowsSize = 0;
+        for (int i = 0; i < bucketsCount; i++) {
+            lengths[i] = buffer.getInt();
+            counts[i] = buffer.getInt();
+            if (lengths[i] <= 0 || counts[i] < 0) {
+                throw new IOException("Invalid bucket " + lengths[i] + ":" + counts[i]);
+            }
+            rowsSize += (long) lengths[i] * counts[i];
+        }
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(buffer.slice(start, buffer.position() - start));
+        if ((int) checksum.getValue() != buffer.getInt()) {
+            throw new IOException("Compiled dictionary header checksum mismatch");
+        }
+        int rowsOffset = buffer.position();
+        if (rowsOffset + rowsSize != buffer.limit() - Integer.BYTES) {
+            throw new IOException("Unexpected compiled dictionary size");
+        }
+        return new Header(wordsCount, letters.toString(), lengths, counts, rowsOffset);
+    }
+}
@@ -0,0 +1,222 @@
+package com.intellij.spellchecker.compress;
+
+import com.intellij.spellchecker.dictionary.Dictionary;
+import com.intellij.spellchecker.dictionary.Loader;
+import com.intellij.spellchecker.engine.Transformation;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Words of several {@link CompressedDictionary} instances in one compressed index with a shared alphabet,
+ * so a word is encoded and searched once instead of once per dictionary.
+ * <p>
+ * Every row keeps a bitmask of the source dictionaries containing the word and every letter a bitmask of the sources
+ * using it, which keeps answers of {@link #contains(CharSequence, int, int)} the same as of probing the sources one by one.
+ * A source is removed by {@link #mask}, without rebuilding the index. {@link #copy} shares the index with its own masks.
+ *
+ * @since 2026-10-17
+ */
+public final class MergedDictionary implements Dictionary {
+    public static final int MAX_SOURCES = Integer.SIZE;
+
+    private final CompressedDictionary myIndex;
+    private final String[] mySourceNames;
+    private final int[] myRowSources;
+    private final int[] myLetterSources;
+    private volatile int myActiveSources;
+
+    private MergedDictionary(
+        @Nonnull CompressedDictionary index,
+        @Nonnull String[] sourceNames,
+        @Nonnull int[] rowSources,
+        @Nonnull int[] letterSources
+    ) {
+        myIndex = index;
+        mySourceNames = sourceNames;
+        myRowSources = rowSources;
+        myLetterSources = letterSources;
+        myActiveSources = sourceNames.length == MAX_SOURCES ? -1 : (1 << sourceNames.length) - 1;
+    }
+
+    /**
+     * @return merged index or {@code null} if the words of the sources don't fit into a single alphabet
+     */
+    @Nullable
+    public static MergedDictionary merge(@Nonnull List<CompressedDictionary> sources, @Nonnull Transformation transform) {
+        if (sources.size() > MAX_SOURCES) {
+            throw new IllegalArgumentException("Too many dictionaries to merge: " + sources.size());
+        }
+        List<CompressedDictionary> copy = List.copyOf(sources);
+        CompressedDictionary index = CompressedDictionaryBuilder.build(new Loader() {
+            @Override
+            public void load(@Nonnull Consumer<String> consumer) {
+                for (CompressedDictionary source : copy) {
+                    for (int row = 0; row < source.getRowsCount(); row++) {
+                        consumer.accept(source.getWord(row));
+                    }
+                }
+            }
+
+            @Override
+            public String getName() {
+                return "merged";
+            }
+        }, transform);
+
+        Alphabet alphabet = index.getAlphabet();
+        int[] rowSources = new int[index.getRowsCount()];
+        int[] letterSources = new int[alphabet.getLastIndexUsed() + 1];
+        String[] sourceNames = new String[copy.size()];
+        for (int i = 0; i < copy.size(); i++) {
+            CompressedDictionary source = copy.get(i);
+            sourceNames[i] = source.getName();
+            int bit = 1 << i;
+            for (int row = 0; row < source.getRowsCount(); row++) {
+                String word = source.getWord(row);
+                int mergedRow = index.findRow(word, 0, word.length());
+                if (mergedRow < 0) {
+                    // dropped because the merged alphabet is full
+                    return null;
+                }
+                rowSources[mergedRow] |= bit;
+            }
+            Alphabet sourceAlphabet = source.getAlphabet();
+            for (int letter = 1; letter <= sourceAlphabet.getLastIndexUsed(); letter++) {
+                int mergedLetter = alphabet.getIndex(sourceAlphabet.getLetter(letter), false);
+                if (mergedLetter >= 0) {
+                    letterSources[mergedLetter] |= bit;
+                }
+            }
+        }
+        return new MergedDictionary(index, sourceNames, rowSources, letterSources);
+    }
+
+    /**
+     * @return dictionary sharing the index with this one, with all sources active and masked independently of this one
+     */
+    @Nonnull
+    public MergedDictionary copy() {
+        return new MergedDictionary(myIndex, mySourceNames, myRowSources, myLetterSources);
+    }
+
+    /**
+     * @return true if both dictionaries are copies of one index
+     */
+    public boolean sharesIndex(@Nonnull MergedDictionary other) {
+        return myIndex == other.myIndex;
+    }
+
+    /**
+     * Stops answering for the source with the given name
+     *
+     * @return true if an active source was masked
+     */
+    public boolean mask(@Nonnull String name) {
+        synchronized (this) {
+            for (int i = 0; i < mySourceNames.length; i++) {
+                int bit = 1 << i;
+                if ((myActiveSources & bit) != 0 && name.equals(mySourceNames[i])) {
+                    myActiveSources &= ~bit;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the dictionary with the given name is merged here and not masked
+     */
+    public boolean isActiveSource(@Nonnull String name) {
+        int active = myActiveSources;
+        for (int i = 0; i < mySourceNames.length; i++) {
+            if ((active & 1 << i) != 0 && name.equals(mySourceNames[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return myIndex.getName();
+    }
+
+    @Nullable
+    @Override
+    public Boolean contains(@Nonnull String word) {
+        return contains(word, 0, word.length());
+    }
+
+    /**
+     * @return same as the first non-null answer of active sources, {@code true} if any of them contains the word
+     * and {@code null} if all letters are unknown for all of them
+     */
+    @Nullable
+    public Boolean contains(@Nonnull CharSequence text, int start, int end) {
+        int active = myActiveSources;
+        int row = myIndex.findRow(text, start, end);
+        if (row >= 0 && (myRowSources[row] & active) != 0) {
+            return true;
+        }
+        if (UnitBitSet.MAX_CHARS_IN_WORD <= end - start) {
+            return false;
+        }
+        // sources which know any of the letters answer false, the others null
+        Alphabet alphabet = myIndex.getAlphabet();
+        int letters = 0;
+        for (int i = start; i < end; i++) {
+            int index = alphabet.getIndex(Character.toLowerCase(text.charAt(i)), false);
+            if (index >= 0) {
+                letters |= myLetterSources[index];
+            }
+        }
+        return (letters & active) == 0 ? null : false;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return myActiveSources == 0;
+    }
+
+    @Override
+    public void traverse(@Nonnull Consumer<String> action) {
+        int active = myActiveSources;
+        for (int row = 0; row < myRowSources.length; row++) {
+            if ((myRowSources[row] & active) != 0) {
+                action.accept(myIndex.getWord(row));
+            }
+        }
+    }
+
+    @Override
+    public Set<String> getWords() {
+        Set<String> words = new HashSet<>();
+        traverse(words::add);
+        return words;
+    }
+
+    @Override
+    public int size() {
+        int active = myActiveSources;
+        int size = 0;
+        for (int sources : myRowSources) {
+            if ((sources & active) != 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "MergedDictionary{sources=" + Arrays.toString(mySourceNames) + "}";
+    }
+}
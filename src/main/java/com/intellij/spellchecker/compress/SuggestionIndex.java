@@ -0,0 +1,169 @@
+package com.intellij.spellchecker.compress;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Symmetric delete index of a {@link CompressedDictionary}: every word is registered under hashes of all strings
+ * obtained by deleting up to {@link #getMaxDistance()} characters from its prefix. Words within that edit distance
+ * from a query share at least one such delete with it, so candidates are found with a few hash probes
+ * regardless of the first letter.
+ * <p>
+ * Pairs of (delete hash, word id) are kept sorted in two parallel arrays, a word id is the global row number
+ * in the dictionary. Hash collisions only add candidates, callers compute the real distance anyway.
+ *
+ * @since 2026-10-17
+ */
+public final class SuggestionIndex {
+    static final int PREFIX_LENGTH = 7;
+    private static final int BYTES_PER_PAIR = 2 * Integer.BYTES;
+
+    private final CompressedDictionary myDictionary;
+    private final int myMaxDistance;
+    private final int[] myHashes;
+    private final int[] myIds;
+
+    private SuggestionIndex(@Nonnull CompressedDictionary dictionary, int maxDistance, @Nonnull int[] hashes, @Nonnull int[] ids) {
+        myDictionary = dictionary;
+        myMaxDistance = maxDistance;
+        myHashes = hashes;
+        myIds = ids;
+    }
+
+    public int getMaxDistance() {
+        return myMaxDistance;
+    }
+
+    public long getMemorySize() {
+        return (long) myHashes.length * BYTES_PER_PAIR;
+    }
+
+    /**
+     * @return distinct dictionary words which may be within {@link #getMaxDistance()} from lowercased {@code word}
+     */
+    @Nonnull
+    public List<String> getCandidates(@Nonnull CharSequence word) {
+        char[] prefix = prefix(word);
+        int[] deletes = new int[(int) countDeletes(prefix.length, myMaxDistance)];
+        int[] deletesCount = new int[1];
+        forEachDelete(prefix, myMaxDistance, hash -> deletes[deletesCount[0]++] = hash);
+
+        int[] ids = new int[16];
+        int count = 0;
+        for (int hash : deletes) {
+            int index = Arrays.binarySearch(myHashes, hash);
+            if (index < 0) {
+                continue;
+            }
+            while (index > 0 && myHashes[index - 1] == hash) {
+                index--;
+            }
+            for (; index < myHashes.length && myHashes[index] == hash; index++) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                }
+                ids[count++] = myIds[index];
+            }
+        }
+
+        Arrays.sort(ids, 0, count);
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                result.add(myDictionary.getWord(ids[i]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return index over all words of the dictionary or {@code null} if building it wouldn't fit into {@code memoryLimit} bytes,
+     * sorted pairs coexist with the final arrays at the end, so the peak is up to twice the index size
+     */
+    @Nullable
+    static SuggestionIndex build(@Nonnull CompressedDictionary dictionary, int maxDistance, long memoryLimit) {
+        int wordsCount = dictionary.getRowsCount();
+        long pairsCount = 0;
+        for (int id = 0; id < wordsCount; id++) {
+            pairsCount += countDeletes(Math.min(dictionary.getWord(id).length(), PREFIX_LENGTH), maxDistance);
+        }
+        if (pairsCount * (Long.BYTES + BYTES_PER_PAIR) > memoryLimit || pairsCount > Integer.MAX_VALUE - 8) {
+            return null;
+        }
+
+        long[] pairs = new long[(int) pairsCount];
+        int[] size = new int[1];
+        for (int id = 0; id < wordsCount; id++) {
+            long wordId = id;
+            forEachDelete(prefix(dictionary.getWord(id)), maxDistance, hash -> pairs[size[0]++] = (long) hash << 32 | wordId);
+        }
+        Arrays.sort(pairs, 0, size[0]);
+
+        int unique = 0;
+        for (int i = 0; i < size[0]; i++) {
+            if (i == 0 || pairs[i] != pairs[i - 1]) {
+                pairs[unique++] = pairs[i];
+            }
+        }
+        int[] hashes = new int[unique];
+        int[] ids = new int[unique];
+        for (int i = 0; i < unique; i++) {
+            hashes[i] = (int) (pairs[i] >> 32);
+            ids[i] = (int) pairs[i];
+        }
+        return new SuggestionIndex(dictionary, maxDistance, hashes, ids);
+    }
+
+    @Nonnull
+    private static char[] prefix(@Nonnull CharSequence word) {
+        char[] chars = new char[Math.min(word.length(), PREFIX_LENGTH)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = word.charAt(i);
+        }
+        return chars;
+    }
+
+    private static long countDeletes(int length, int maxDistance) {
+        long result = 0;
+        long combinations = 1;
+        for (int k = 0; k <= Math.min(length, maxDistance); k++) {
+            result += combinations;
+            combinations = combinations * (length - k) / (k + 1);
+        }
+        return result;
+    }
+
+    /**
+     * Calls {@code consumer} with hashes of {@code chars} and every string obtained by deleting up to {@code maxDeletes}
+     * characters from it, same strings reached through different positions are reported more than once
+     */
+    static void forEachDelete(@Nonnull char[] chars, int maxDeletes, @Nonnull IntConsumer consumer) {
+        forEachDelete(chars, chars.length, 0, maxDeletes, consumer);
+    }
+
+    private static void forEachDelete(@Nonnull char[] chars, int length, int from, int maxDeletes, @Nonnull IntConsumer consumer) {
+        consumer.accept(hash(chars, length));
+        if (maxDeletes == 0) {
+            return;
+        }
+        char[] deleted = new char[Math.max(length - 1, 0)];
+        for (int i = from; i < length; i++) {
+            System.arraycopy(chars, 0, deleted, 0, i);
+            System.arraycopy(chars, i + 1, deleted, i, length - i - 1);
+            forEachDelete(deleted, length - 1, i, maxDeletes - 1, consumer);
+        }
+    }
+
+    private static int hash(@Nonnull char[] chars, int length) {
+        int hash = length;
+        for (int i = 0; i < length; i++) {
+            hash = hash * 31 + chars[i];
+        }
+        return hash ^ hash >>> 16;
+    }
+}
@@ -46,14 +46,41 @@ public class UnitBitSet {
 
     @Nonnull
     public byte[] pack() {
-        int meaningfulBits = 32 - Integer.numberOfLeadingZeros(alpha.getLastIndexUsed());
+        int meaningfulBits = getMeaningfulBits(alpha);
+        byte[] result = new byte[getPackedLength(b.length, meaningfulBits)];
+        pack(b, b.length, meaningfulBits, result);
+        return result;
+    }
+
+    static int getMeaningfulBits(@Nonnull Alphabet alphabet) {
+        int meaningfulBits = 32 - Integer.numberOfLeadingZeros(alphabet.getLastIndexUsed());
         assert meaningfulBits <= 8;
-        byte[] result = new byte[(b.length * meaningfulBits + 7) / 8];
+        return meaningfulBits;
+    }
 
-        int byteNumber = 0;
+    static int getPackedLength(int indicesCount, int meaningfulBits) {
+        return (indicesCount * meaningfulBits + 7) / 8;
+    }
+
+    /**
+     * Packs first {@code count} letter indices into {@code result}, which should be at least
+     * {@link #getPackedLength} long
+     *
+     * @return packed length
+     */
+    static int pack(@Nonnull byte[] indices, int count, int meaningfulBits, @Nonnull byte[] result) {
+        return pack(indices, 0, count, meaningfulBits, result, 0);
+    }
+
+    static int pack(@Nonnull byte[] indices, int from, int count, int meaningfulBits, @Nonnull byte[] result, int offset) {
+        int packedLength = getPackedLength(count, meaningfulBits);
+        Arrays.fill(result, offset, offset + packedLength, (byte) 0);
+
+        int byteNumber = offset;
         int bitOffset = 0;
 
-        for (byte index : b) {
+        for (int i = 0; i < count; i++) {
+            byte index = indices[from + i];
             int bitsToChip = Math.min(8 - bitOffset, meaningfulBits);
             result[byteNumber] |= (index & ((1 << bitsToChip) - 1)) << bitOffset;
 
@@ -67,7 +94,7 @@ public class UnitBitSet {
                 bitOffset += bitsToChip;
             }
         }
-        return result;
+        return packedLength;
     }
 
     @Nonnull
@@ -16,11 +16,50 @@
 package com.intellij.spellchecker.dictionary;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 
 import java.util.function.Consumer;
 
 public interface Loader {
     void load(@Nonnull Consumer<String> consumer);
 
+    /**
+     * Same lines as {@link #load} passed as a reusable {@link CharSequence} which is valid only during the consumer call,
+     * so loaders could avoid allocating a string per line
+     */
+    default void loadLines(@Nonnull Consumer<? super CharSequence> consumer) {
+        load(consumer::accept);
+    }
+
     String getName();
+
+    /**
+     * @return stable identity of the dictionary source (resource, file path) or {@code null}
+     * if the loaded dictionary must not be shared between spellchecker engines
+     */
+    @Nullable
+    default String getSourceId() {
+        return null;
+    }
+
+    /**
+     * @return hash of the dictionary content, only requested for loaders with non-null {@link #getSourceId()}
+     */
+    @Nullable
+    default String getContentHash() {
+        return null;
+    }
+
+    /**
+     * @return true if {@link #getContentHash()} is known without reading the content, so it is cheap on any thread
+     */
+    default boolean isContentHashKnown() {
+        return false;
+    }
+
+    /**
+     * Drops the content kept since {@link #getContentHash()} for the following load, called if it is not going to be loaded
+     */
+    default void releaseContent() {
+    }
 }
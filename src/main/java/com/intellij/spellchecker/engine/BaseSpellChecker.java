@@ -16,6 +16,8 @@
 package com.intellij.spellchecker.engine;
 
 import com.intellij.spellchecker.compress.CompressedDictionary;
+import com.intellij.spellchecker.compress.MergedDictionary;
+import com.intellij.spellchecker.compress.SuggestionIndex;
 import com.intellij.spellchecker.dictionary.Dictionary;
 import com.intellij.spellchecker.dictionary.EditableDictionary;
 import com.intellij.spellchecker.dictionary.EditableDictionaryLoader;
@@ -25,38 +27,157 @@ import consulo.application.progress.PerformInBackgroundOption;
 import consulo.application.progress.ProgressIndicator;
 import consulo.application.progress.ProgressManager;
 import consulo.application.progress.Task;
-import consulo.language.editor.DaemonCodeAnalyzer;
+import consulo.application.util.concurrent.AppExecutorUtil;
 import consulo.logging.Logger;
 import consulo.project.Project;
-import consulo.project.ProjectManager;
 import consulo.project.startup.StartupManager;
 import consulo.ui.ex.awt.UIUtil;
-import consulo.util.collection.Lists;
-import consulo.util.lang.Pair;
 import consulo.util.lang.StringUtil;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 public class BaseSpellChecker implements SpellCheckerEngine {
     static final Logger LOG = Logger.getInstance(BaseSpellChecker.class);
 
     private final Transformation transform = new Transformation();
 
-    private final Set<EditableDictionary> dictionaries = new HashSet<>();
-    private final List<Dictionary> bundledDictionaries = Lists.newLockFreeCopyOnWriteList();
-    private final Metrics metrics = new LevenshteinDistance();
+    /**
+     * Immutable snapshot of the engine dictionaries. Highlighting threads read it without locks,
+     * modifications atomically publish a new snapshot.
+     * {@code probed} are the bundled dictionaries checked by {@link #isCorrect}, with merged ones replaced by {@code merged}.
+     */
+    private record DictionarySet(
+        @Nonnull List<Dictionary> bundled,
+        @Nonnull List<EditableDictionary> editable,
+        @Nullable MergedDictionary merged,
+        @Nonnull List<Dictionary> probed
+    ) {
+        private static final DictionarySet EMPTY = of(List.of(), List.of(), null);
+
+        @Nonnull
+        static DictionarySet of(@Nonnull List<Dictionary> bundled, @Nonnull List<EditableDictionary> editable, @Nullable MergedDictionary merged) {
+            if (merged == null) {
+                return new DictionarySet(bundled, editable, null, bundled);
+            }
+            List<Dictionary> probed = new ArrayList<>(bundled.size());
+            probed.add(merged);
+            for (Dictionary dictionary : bundled) {
+                if (!(dictionary instanceof CompressedDictionary) || !merged.isActiveSource(dictionary.getName())) {
+                    probed.add(dictionary);
+                }
+            }
+            return new DictionarySet(bundled, editable, merged, List.copyOf(probed));
+        }
+
+        @Nonnull
+        DictionarySet withBundled(@Nonnull Dictionary dictionary) {
+            return of(append(bundled, dictionary), editable, merged);
+        }
+
+        @Nonnull
+        DictionarySet withoutBundled(@Nonnull Dictionary dictionary) {
+            List<Dictionary> result = new ArrayList<>(bundled);
+            result.remove(dictionary);
+            return of(List.copyOf(result), editable, merged);
+        }
+
+        @Nonnull
+        DictionarySet withEditable(@Nonnull EditableDictionary dictionary) {
+            return editable.contains(dictionary) ? this : of(bundled, append(editable, dictionary), merged);
+        }
+
+        @Nonnull
+        DictionarySet withMerged(@Nullable MergedDictionary dictionary) {
+            return of(bundled, editable, dictionary);
+        }
+
+        /**
+         * @return set with the dictionary of the same name replaced or this set if there is no such dictionary
+         */
+        @Nonnull
+        DictionarySet withReplacedBundled(@Nonnull Dictionary dictionary) {
+            List<Dictionary> result = new ArrayList<>(bundled);
+            for (int i = 0; i < result.size(); i++) {
+                if (dictionary.getName().equals(result.get(i).getName())) {
+                    result.set(i, dictionary);
+                    return of(List.copyOf(result), editable, merged);
+                }
+            }
+            return this;
+        }
+
+        @Nullable
+        Dictionary findBundled(@Nonnull String name) {
+            for (Dictionary dictionary : bundled) {
+                if (name.equals(dictionary.getName())) {
+                    return dictionary;
+                }
+            }
+            return null;
+        }
+
+        @Nonnull
+        private static <T> List<T> append(@Nonnull List<T> list, @Nonnull T element) {
+            List<T> result = new ArrayList<>(list.size() + 1);
+            result.addAll(list);
+            result.add(element);
+            return List.copyOf(result);
+        }
+    }
+
+    // opt-in, merges immutable bundled dictionaries into one index, so a word is encoded and searched once
+    private static final boolean MERGE_DICTIONARIES = Boolean.getBoolean("spellchecker.merged.index");
+
+    private static final int SUGGESTION_INDEX_DISTANCE = 2;
+    // per dictionary, 0 disables suggestion index
+    private static final long SUGGESTION_INDEX_MEMORY_LIMIT = Long.getLong("spellchecker.suggestion.index.limit.mb", 64) << 20;
+
+    private final AtomicReference<DictionarySet> myDictionaries = new AtomicReference<>(DictionarySet.EMPTY);
+    private final Metrics metrics = Metrics.create();
+
+    // independent loaders are parsed in parallel, every dictionary is published as soon as it is ready
+    private static final ExecutorService ourLoadingExecutor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+        "Spellchecker Dictionary Loader",
+        Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1))
+    );
+
+    /**
+     * Loader queued for {@link #loadAndPublish}, {@code resetCount} is the number of {@link #reset} calls before it was queued
+     */
+    private record PendingLoad(@Nonnull Loader loader, @Nonnull Function<Loader, Dictionary> factory, int resetCount) {
+    }
 
     private final AtomicBoolean myLoadingDictionaries = new AtomicBoolean(false);
-    private final List<Pair<Loader, Consumer<Dictionary>>> myDictionariesToLoad = Lists.newLockFreeCopyOnWriteList();
+    private final AtomicInteger myPendingDictionaries = new AtomicInteger();
+    // dictionaries loaded for an older count were requested before a reset and are dropped
+    private final AtomicInteger myResetCount = new AtomicInteger();
+    private final Queue<PendingLoad> myDictionariesToLoad = new ConcurrentLinkedQueue<>();
+    private final Queue<Runnable> myLoadedActions = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean myMergeScheduled = new AtomicBoolean();
+    private final List<Runnable> myChangeListeners = new CopyOnWriteArrayList<>();
+    // mapped from the storage while they were requested, misses against them are typos even while others load
+    private final Set<Dictionary> myCoreDictionaries = ConcurrentHashMap.newKeySet();
+
+    private static final long LAZY_DICTIONARY_IDLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private final AtomicReference<ScheduledFuture<?>> myEviction = new AtomicReference<>();
     @Nonnull
     private final Project myProject;
+    @Nonnull
+    private final CompressedDictionaryRegistry myRegistry;
+    @Nonnull
+    private final SpellCheckerStatistics myStatistics;
 
     public BaseSpellChecker(@Nonnull Project project) {
         myProject = project;
+        myRegistry = project.getApplication().getInstance(CompressedDictionaryRegistry.class);
+        myStatistics = project.getApplication().getInstance(SpellCheckerStatistics.class);
     }
 
     @Override
@@ -72,33 +193,140 @@ public class BaseSpellChecker implements SpellCheckerEngine {
         }
     }
 
-    private void loadCompressedDictionary(@Nonnull Loader loader) {
+    /**
+     * Registers a handle which compresses the dictionary only when a lookup reaches it, see {@link LazyDictionary}
+     */
+    @Override
+    public void loadDictionaryLazily(@Nonnull Loader loader) {
+        loadCompressedDictionary(loader, this::createLazyDictionary);
+    }
+
+    @Nonnull
+    private LazyDictionary createLazyDictionary(@Nonnull Loader loader) {
         Application application = myProject.getApplication();
+        boolean synchronous = application.isUnitTestMode() || application.isHeadlessEnvironment();
+        return LazyDictionary.create(loader, transform, myRegistry, synchronous ? null : this::loadLazily);
+    }
+
+    /**
+     * Acquires a lazy dictionary reached by a lookup on the loading pool, it counts as a loading dictionary meanwhile
+     */
+    private void loadLazily(@Nonnull Runnable load) {
+        myPendingDictionaries.incrementAndGet();
+        ourLoadingExecutor.execute(() -> {
+            try {
+                if (!myProject.isDisposed()) {
+                    load.run();
+                }
+            }
+            catch (RuntimeException e) {
+                LOG.error("Couldn't load dictionary", e);
+            }
+            finally {
+                if (myPendingDictionaries.decrementAndGet() == 0) {
+                    dictionariesChanged();
+                }
+            }
+        });
+    }
+
+    /**
+     * Builds the new dictionary in background, the loaded one keeps answering until the new one is published
+     */
+    @Override
+    public void replaceDictionary(@Nonnull Loader loader, @Nonnull Runnable onReplaced) {
+        Application application = myProject.getApplication();
+        int resetCount = myResetCount.get();
         if (application.isUnitTestMode() || application.isHeadlessEnvironment()) {
-            CompressedDictionary dictionary = CompressedDictionary.create(loader, transform);
-            addCompressedFixedDictionary(dictionary);
+            swapDictionary(loader, resetCount, onReplaced);
         }
         else {
-            loadDictionaryAsync(loader, this::addCompressedFixedDictionary);
+            ourLoadingExecutor.execute(() -> {
+                try {
+                    swapDictionary(loader, resetCount, onReplaced);
+                }
+                catch (RuntimeException e) {
+                    LOG.error("Couldn't reload " + loader.getName(), e);
+                }
+            });
         }
     }
 
-    private void loadDictionaryAsync(@Nonnull Loader loader, @Nonnull Consumer<Dictionary> consumer) {
-        if (myLoadingDictionaries.compareAndSet(false, true)) {
-            LOG.debug("Loading " + loader.getName());
-            _doLoadDictionaryAsync(loader, consumer);
+    private void swapDictionary(@Nonnull Loader loader, int resetCount, @Nonnull Runnable onReplaced) {
+        if (myProject.isDisposed() || myResetCount.get() != resetCount || !isDictionaryLoad(loader.getName())) {
+            return;
+        }
+        long start = System.nanoTime();
+        LazyDictionary dictionary = createLazyDictionary(loader);
+        // compress right away, a dictionary which was just edited is likely to be looked up
+        dictionary.getDictionary();
+        myStatistics.dictionaryLoaded(loader.getName(), System.nanoTime() - start, dictionary);
+        if (myResetCount.get() != resetCount) {
+            dictionary.release();
+            return;
+        }
+        DictionarySet previous = myDictionaries.getAndUpdate(set -> set.withReplacedBundled(dictionary));
+        Dictionary replaced = previous.findBundled(loader.getName());
+        if (replaced == null) {
+            LOG.debug(loader.getName() + " was removed while reloading");
+            dictionary.release();
+            return;
+        }
+        if (previous.merged() != null) {
+            previous.merged().mask(loader.getName());
+        }
+        releaseDictionary(replaced);
+        dictionariesChanged();
+        if (withdrawIfReset(dictionary, resetCount)) {
+            return;
+        }
+        scheduleEviction();
+        LOG.debug(loader.getName() + " reloaded!");
+        onReplaced.run();
+    }
+
+    private void loadCompressedDictionary(@Nonnull Loader loader) {
+        // a dictionary keyed without reading its source and compiled on a previous run is only mapped
+        if (loader.isContentHashKnown()) {
+            long start = System.nanoTime();
+            CompressedDictionary compiled = myRegistry.acquireIfCompiled(loader, transform, loader.getContentHash());
+            if (compiled != null) {
+                myStatistics.dictionaryLoaded(loader.getName(), System.nanoTime() - start, compiled);
+                LOG.debug(loader.getName() + " mapped!");
+                myCoreDictionaries.add(compiled);
+                addCompressedFixedDictionary(compiled);
+                return;
+            }
+        }
+        // other dictionaries are looked up in background: hashing their source reads it whole,
+        // files analysed meanwhile are highlighted again once it is loaded
+        loadCompressedDictionary(loader, l -> myRegistry.acquire(l, transform));
+    }
+
+    private void loadCompressedDictionary(@Nonnull Loader loader, @Nonnull Function<Loader, Dictionary> factory) {
+        Application application = myProject.getApplication();
+        if (application.isUnitTestMode() || application.isHeadlessEnvironment()) {
+            addCompressedFixedDictionary(createDictionary(loader, factory));
         }
         else {
-            queueDictionaryLoad(loader, consumer);
+            loadDictionaryAsync(loader, factory);
+        }
+    }
+
+    private void loadDictionaryAsync(@Nonnull Loader loader, @Nonnull Function<Loader, Dictionary> factory) {
+        LOG.debug("Queuing load for: " + loader.getName());
+        myPendingDictionaries.incrementAndGet();
+        myDictionariesToLoad.add(new PendingLoad(loader, factory, myResetCount.get()));
+        if (myLoadingDictionaries.compareAndSet(false, true)) {
+            _doLoadDictionaryAsync();
         }
     }
 
-    private void _doLoadDictionaryAsync(final Loader loader, final Consumer<Dictionary> consumer) {
+    private void _doLoadDictionaryAsync() {
         Runnable runnable = () -> {
             if (myProject.isDisposed()) {
                 return;
             }
-            LOG.debug("Loading " + loader.getName());
             ProgressManager.getInstance()
                 .run(new Task.Backgroundable(myProject, "Loading spellchecker dictionaries...", false,
                     new PerformInBackgroundOption() {
@@ -114,33 +342,21 @@ public class BaseSpellChecker implements SpellCheckerEngine {
                 ) {
                     @Override
                     public void run(@Nonnull ProgressIndicator indicator) {
-                        indicator.setText(String.format("Loading %s...", loader.getName()));
-                        CompressedDictionary dictionary = CompressedDictionary.create(loader, transform);
-                        LOG.debug(loader.getName() + " loaded!");
-                        consumer.accept(dictionary);
-
-                        while (!myDictionariesToLoad.isEmpty()) {
-                            Pair<Loader, Consumer<Dictionary>> nextDictionary = myDictionariesToLoad.remove(0);
-                            Loader nextDictionaryLoader = nextDictionary.getFirst();
-                            indicator.setText(String.format("Loading %s...", nextDictionaryLoader.getName()));
-                            CompressedDictionary dictionary1 = CompressedDictionary.create(nextDictionaryLoader, transform);
-                            LOG.debug(nextDictionaryLoader.getName() + " loaded!");
-                            nextDictionary.getSecond().accept(dictionary1);
-                        }
-
-                        LOG.debug("Loading finished, restarting daemon...");
-                        myLoadingDictionaries.set(false);
-                        Project[] openProjects = ProjectManager.getInstance().getOpenProjects();
-                        for (Project project : openProjects) {
-                            if (project.isInitialized() && project.isOpen() && !project.isDefault()) {
-                                UIUtil.invokeLaterIfNeeded(() -> {
-                                    if (project.isDisposed()) {
-                                        return;
-                                    }
-                                    DaemonCodeAnalyzer.getInstance(project).restart();
-                                });
+                        // repeat for loaders queued after the last poll but before the flag was dropped
+                        do {
+                            List<CompletableFuture<Void>> futures = new ArrayList<>();
+                            PendingLoad next;
+                            while ((next = myDictionariesToLoad.poll()) != null) {
+                                PendingLoad load = next;
+                                futures.add(CompletableFuture.runAsync(() -> loadAndPublish(load, indicator), ourLoadingExecutor));
                             }
+                            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+                            myLoadingDictionaries.set(false);
                         }
+                        while (!myDictionariesToLoad.isEmpty() && myLoadingDictionaries.compareAndSet(false, true));
+
+                        LOG.debug("Loading finished");
+                        runLoadedActions();
                     }
                 });
         };
@@ -153,17 +369,221 @@ public class BaseSpellChecker implements SpellCheckerEngine {
         }
     }
 
-    private void queueDictionaryLoad(Loader loader, Consumer<Dictionary> consumer) {
-        LOG.debug("Queuing load for: " + loader.getName());
-        myDictionariesToLoad.add(Pair.create(loader, consumer));
+    private void loadAndPublish(@Nonnull PendingLoad load, @Nonnull ProgressIndicator indicator) {
+        Loader loader = load.loader();
+        try {
+            if (myProject.isDisposed() || myResetCount.get() != load.resetCount()) {
+                return;
+            }
+            indicator.setText(String.format("Loading %s...", loader.getName()));
+            Dictionary dictionary = createDictionary(loader, load.factory());
+            if (myResetCount.get() != load.resetCount()) {
+                LOG.debug(loader.getName() + " loaded after reset, dropped");
+                releaseDictionary(dictionary);
+                return;
+            }
+            LOG.debug(loader.getName() + " loaded!");
+            addCompressedFixedDictionary(dictionary);
+            withdrawIfReset(dictionary, load.resetCount());
+        }
+        catch (RuntimeException e) {
+            LOG.error("Couldn't load " + loader.getName(), e);
+        }
+        finally {
+            if (myPendingDictionaries.decrementAndGet() == 0) {
+                // answers given while loading accepted words absent in the loaded dictionaries
+                dictionariesChanged();
+            }
+        }
+    }
+
+    /**
+     * Removes and releases the dictionary published concurrently with a {@link #reset}, which didn't see it
+     *
+     * @return true if the engine was reset after {@code resetCount} was read
+     */
+    private boolean withdrawIfReset(@Nonnull Dictionary dictionary, int resetCount) {
+        if (myResetCount.get() == resetCount) {
+            return false;
+        }
+        while (true) {
+            DictionarySet dictionaries = myDictionaries.get();
+            if (!dictionaries.bundled().contains(dictionary)) {
+                // released by the reset itself
+                return true;
+            }
+            if (myDictionaries.compareAndSet(dictionaries, dictionaries.withoutBundled(dictionary))) {
+                releaseDictionary(dictionary);
+                dictionariesChanged();
+                return true;
+            }
+        }
+    }
+
+    @Nonnull
+    private Dictionary createDictionary(@Nonnull Loader loader, @Nonnull Function<Loader, Dictionary> factory) {
+        long start = System.nanoTime();
+        Dictionary dictionary = factory.apply(loader);
+        myStatistics.dictionaryLoaded(loader.getName(), System.nanoTime() - start, dictionary);
+        return dictionary;
+    }
+
+    @Override
+    public boolean isLoading() {
+        return myPendingDictionaries.get() > 0;
+    }
+
+    @Override
+    public void whenLoaded(@Nonnull Runnable action) {
+        myLoadedActions.add(action);
+        if (!isLoading()) {
+            runLoadedActions();
+        }
+    }
+
+    private void runLoadedActions() {
+        if (isLoading()) {
+            return;
+        }
+        Runnable action;
+        while ((action = myLoadedActions.poll()) != null) {
+            try {
+                action.run();
+            }
+            catch (RuntimeException e) {
+                LOG.error(e);
+            }
+        }
     }
 
     private void addModifiableDictionary(@Nonnull EditableDictionary dictionary) {
-        dictionaries.add(dictionary);
+        myDictionaries.updateAndGet(set -> set.withEditable(dictionary));
+        dictionariesChanged();
     }
 
     private void addCompressedFixedDictionary(@Nonnull Dictionary dictionary) {
-        bundledDictionaries.add(dictionary);
+        myDictionaries.updateAndGet(set -> set.withBundled(dictionary));
+        dictionariesChanged();
+        if (dictionary instanceof CompressedDictionary compressedDictionary
+            && compressedDictionary.getSuggestionIndex() == null
+            && SUGGESTION_INDEX_MEMORY_LIMIT > 0) {
+            myProject.getApplication().executeOnPooledThread(
+                () -> compressedDictionary.buildSuggestionIndex(SUGGESTION_INDEX_DISTANCE, SUGGESTION_INDEX_MEMORY_LIMIT)
+            );
+        }
+        if (dictionary instanceof LazyDictionary) {
+            scheduleEviction();
+        }
+        if (MERGE_DICTIONARIES && dictionary instanceof CompressedDictionary && myMergeScheduled.compareAndSet(false, true)) {
+            whenLoaded(() -> myProject.getApplication().executeOnPooledThread(() -> {
+                myMergeScheduled.set(false);
+                mergeDictionaries();
+            }));
+        }
+    }
+
+    /**
+     * Merges all loaded {@link CompressedDictionary} instances into a {@link MergedDictionary} probed instead of them
+     */
+    private void mergeDictionaries() {
+        if (myProject.isDisposed()) {
+            return;
+        }
+        int resetCount = myResetCount.get();
+        DictionarySet dictionaries = myDictionaries.get();
+        List<CompressedDictionary> sources = new ArrayList<>();
+        for (Dictionary dictionary : dictionaries.bundled()) {
+            if (dictionary instanceof CompressedDictionary compressedDictionary && sources.size() < MergedDictionary.MAX_SOURCES) {
+                sources.add(compressedDictionary);
+            }
+        }
+        boolean merged = dictionaries.merged() != null
+            && sources.stream().allMatch(dictionary -> dictionaries.merged().isActiveSource(dictionary.getName()));
+        if (sources.size() < 2 || merged) {
+            return;
+        }
+
+        MergedDictionary dictionary = myRegistry.acquireMerged(sources, transform);
+        if (dictionary == null) {
+            LOG.warn("Couldn't merge " + sources + ", they are probed one by one");
+            return;
+        }
+        if (myResetCount.get() != resetCount) {
+            myRegistry.release(dictionary);
+            return;
+        }
+        // mask sources removed while merging
+        DictionarySet previous = myDictionaries.getAndUpdate(set -> set.withMerged(dictionary));
+        DictionarySet published = myDictionaries.get();
+        for (CompressedDictionary source : sources) {
+            if (!published.bundled().contains(source)) {
+                dictionary.mask(source.getName());
+            }
+        }
+        if (previous.merged() != null) {
+            myRegistry.release(previous.merged());
+        }
+        dictionariesChanged();
+        if (myResetCount.get() != resetCount) {
+            // published after the reset released the merged index of that time
+            DictionarySet current;
+            while ((current = myDictionaries.get()).merged() == dictionary) {
+                if (myDictionaries.compareAndSet(current, current.withMerged(null))) {
+                    myRegistry.release(dictionary);
+                    dictionariesChanged();
+                    break;
+                }
+            }
+            return;
+        }
+        LOG.debug("Merged " + sources.size() + " dictionaries");
+    }
+
+    @Override
+    public void addChangeListener(@Nonnull Runnable listener) {
+        myChangeListeners.add(listener);
+    }
+
+    private void dictionariesChanged() {
+        for (Runnable listener : myChangeListeners) {
+            listener.run();
+        }
+    }
+
+    private void scheduleEviction() {
+        if (myEviction.get() == null) {
+            ScheduledFuture<?> eviction = AppExecutorUtil.getAppScheduledExecutorService()
+                .scheduleWithFixedDelay(this::evictIdleDictionaries, 1, 1, TimeUnit.MINUTES);
+            if (!myEviction.compareAndSet(null, eviction)) {
+                eviction.cancel(false);
+            }
+        }
+    }
+
+    private void evictIdleDictionaries() {
+        for (Dictionary dictionary : myDictionaries.get().bundled()) {
+            if (dictionary instanceof LazyDictionary lazyDictionary && lazyDictionary.evictIfIdle(LAZY_DICTIONARY_IDLE_NANOS)) {
+                LOG.debug("Evicted idle " + lazyDictionary.getName());
+            }
+        }
+    }
+
+    private void releaseDictionary(@Nonnull Dictionary dictionary) {
+        myCoreDictionaries.remove(dictionary);
+        if (dictionary instanceof LazyDictionary lazyDictionary) {
+            lazyDictionary.release();
+        }
+        else {
+            myRegistry.release(dictionary);
+        }
+    }
+
+    /**
+     * @return compressed dictionary behind a lazy handle, acquiring it, or the dictionary itself
+     */
+    @Nullable
+    private static Dictionary unwrap(@Nonnull Dictionary dictionary) {
+        return dictionary instanceof LazyDictionary lazyDictionary ? lazyDictionary.getDictionary() : dictionary;
     }
 
     @Override
@@ -233,18 +653,99 @@ public class BaseSpellChecker implements SpellCheckerEngine {
         return -1;
     }
 
+    /**
+     * Allocation free form of {@link #isCorrect(String, Collection)} for compressed dictionaries
+     */
+    private int isCorrect(@Nonnull String word, int start, int end, @Nonnull Collection<? extends Dictionary> dictionaries) {
+        int errors = 0;
+        for (Dictionary dictionary : dictionaries) {
+            if (dictionary == null) {
+                continue;
+            }
+            Boolean contains;
+            if (dictionary instanceof CompressedDictionary compressedDictionary) {
+                contains = compressedDictionary.contains(word, start, end);
+            }
+            else if (dictionary instanceof LazyDictionary lazyDictionary) {
+                contains = lazyDictionary.contains(word, start, end);
+            }
+            else if (dictionary instanceof MergedDictionary mergedDictionary) {
+                contains = mergedDictionary.contains(word, start, end);
+            }
+            else {
+                contains = dictionary.contains(transform.transform(word));
+            }
+            if (contains == null) {
+                ++errors;
+            }
+            else if (contains) {
+                return 0;
+            }
+        }
+        if (errors == dictionaries.size()) {
+            return errors;
+        }
+        return -1;
+    }
+
     @Override
     public boolean isCorrect(@Nonnull String word) {
+        if (!SpellCheckerStatistics.ENABLED) {
+            return check(word) != SpellCheckerStatistics.Verdict.TYPO;
+        }
+        long start = System.nanoTime();
+        SpellCheckerStatistics.Verdict verdict = check(word);
+        myStatistics.wordChecked(verdict, System.nanoTime() - start);
+        return verdict != SpellCheckerStatistics.Verdict.TYPO;
+    }
+
+    @Nonnull
+    private SpellCheckerStatistics.Verdict check(@Nonnull String word) {
         //System.out.println("---\n"+word);
-        String transformed = transform.transform(word);
-        if (myLoadingDictionaries.get() || transformed == null) {
-            return true;
+        int start = Transformation.trimStart(word);
+        int end = Transformation.trimEnd(word);
+        if (Transformation.isSkipped(start, end)) {
+            return SpellCheckerStatistics.Verdict.SKIPPED;
+        }
+        DictionarySet dictionaries = myDictionaries.get();
+        int bundled = isCorrect(word, start, end, dictionaries.probed());
+        if (bundled == 0) {
+            return SpellCheckerStatistics.Verdict.CORRECT;
         }
-        int bundled = isCorrect(transformed, bundledDictionaries);
-        int user = isCorrect(transformed, dictionaries);
+        String transformed = transform.transform(word);
+        int user = isCorrect(transformed, dictionaries.editable());
         //System.out.println("bundled = " + bundled);
         //System.out.println("user = " + user);
-        return bundled == 0 || user == 0 || bundled > 0 && user > 0;
+        if (user == 0) {
+            return SpellCheckerStatistics.Verdict.CORRECT;
+        }
+        if (bundled > 0 && user > 0) {
+            return SpellCheckerStatistics.Verdict.UNKNOWN_LETTERS;
+        }
+        // a word absent in the loaded dictionaries may be in a loading one
+        return isLoading() && mayBeLoading(word, start, end, dictionaries)
+            ? SpellCheckerStatistics.Verdict.LOADING
+            : SpellCheckerStatistics.Verdict.TYPO;
+    }
+
+    /**
+     * @return true unless the letters of the word are covered by a core dictionary, see {@link #loadCompressedDictionary(Loader)},
+     * and no lazy dictionary which may contain the word is being acquired
+     */
+    private boolean mayBeLoading(@Nonnull String word, int start, int end, @Nonnull DictionarySet dictionaries) {
+        boolean covered = false;
+        for (Dictionary dictionary : dictionaries.bundled()) {
+            if (dictionary instanceof LazyDictionary lazyDictionary) {
+                if (lazyDictionary.isAcquiring(word, start, end)) {
+                    return true;
+                }
+            }
+            else if (!covered && dictionary instanceof CompressedDictionary compressedDictionary
+                && myCoreDictionaries.contains(compressedDictionary)) {
+                covered = compressedDictionary.contains(word, start, end) != null;
+            }
+        }
+        return !covered;
     }
 
     @Nonnull
@@ -254,17 +755,51 @@ public class BaseSpellChecker implements SpellCheckerEngine {
         if (transformed == null) {
             return Collections.emptyList();
         }
-        List<Suggestion> suggestions = new ArrayList<>();
-        List<String> rawSuggestions = restore(transformed.charAt(0), 0, Integer.MAX_VALUE, bundledDictionaries);
-        rawSuggestions.addAll(restore(word.charAt(0), 0, Integer.MAX_VALUE, dictionaries));
-        for (String rawSuggestion : rawSuggestions) {
-            int distance = metrics.calculateMetrics(transformed, rawSuggestion);
-            suggestions.add(new Suggestion(rawSuggestion, distance));
-        }
         List<String> result = new ArrayList<>();
-        if (suggestions.isEmpty()) {
+        if (threshold <= 0) {
+            return result;
+        }
+        long start = SpellCheckerStatistics.ENABLED ? System.nanoTime() : 0;
+        DictionarySet dictionaries = myDictionaries.get();
+        // keep only the best threshold suggestions, the worst of them bounds the metrics of the next candidate
+        PriorityQueue<Suggestion> best = new PriorityQueue<>(threshold + 1, Comparator.reverseOrder());
+        Metrics.Query query = metrics.forQuery(transformed);
+
+        List<Dictionary> indexedDictionaries = new ArrayList<>();
+        List<Dictionary> scannedDictionaries = new ArrayList<>();
+        Set<String> indexed = new HashSet<>();
+        int indexedDistance = Integer.MAX_VALUE;
+        for (Dictionary bundled : dictionaries.bundled()) {
+            Dictionary dictionary = unwrap(bundled);
+            SuggestionIndex index = dictionary instanceof CompressedDictionary compressedDictionary
+                ? compressedDictionary.getSuggestionIndex()
+                : null;
+            if (index != null) {
+                indexedDictionaries.add(dictionary);
+                indexed.addAll(index.getCandidates(transformed));
+                indexedDistance = Math.min(indexedDistance, index.getMaxDistance());
+            }
+            else if (dictionary != null) {
+                scannedDictionaries.add(dictionary);
+            }
+        }
+        int candidates = collectSuggestions(query, indexed, threshold, best);
+        candidates += collectSuggestions(query, restore(transformed.charAt(0), 0, Integer.MAX_VALUE, scannedDictionaries), threshold, best);
+        candidates += collectSuggestions(query, restore(word.charAt(0), 0, Integer.MAX_VALUE, dictionaries.editable()), threshold, best);
+
+        // indexed words missing in candidates are farther than the index distance, scan them only if close ones are not enough
+        if (!indexedDictionaries.isEmpty() && (best.size() < threshold || best.peek().getMetrics() > indexedDistance)) {
+            List<String> rawSuggestions = restore(transformed.charAt(0), 0, Integer.MAX_VALUE, indexedDictionaries);
+            rawSuggestions.removeIf(indexed::contains);
+            candidates += collectSuggestions(query, rawSuggestions, threshold, best);
+        }
+        if (SpellCheckerStatistics.ENABLED) {
+            myStatistics.suggestionsCollected(System.nanoTime() - start, candidates);
+        }
+        if (best.isEmpty()) {
             return result;
         }
+        List<Suggestion> suggestions = new ArrayList<>(best);
         Collections.sort(suggestions);
         int bestMetrics = suggestions.get(0).getMetrics();
         for (int i = 0; i < threshold; i++) {
@@ -278,6 +813,29 @@ public class BaseSpellChecker implements SpellCheckerEngine {
     }
 
 
+    /**
+     * @return number of the candidates the metrics was calculated for
+     */
+    private static int collectSuggestions(
+        @Nonnull Metrics.Query query,
+        @Nonnull Collection<String> rawSuggestions,
+        int threshold,
+        @Nonnull PriorityQueue<Suggestion> best
+    ) {
+        for (String rawSuggestion : rawSuggestions) {
+            int bound = best.size() < threshold ? Integer.MAX_VALUE : best.peek().getMetrics();
+            int distance = query.calculateMetrics(rawSuggestion, bound);
+            if (distance > bound) {
+                continue;
+            }
+            best.add(new Suggestion(rawSuggestion, distance));
+            if (best.size() > threshold) {
+                best.poll();
+            }
+        }
+        return rawSuggestions.size();
+    }
+
     @Override
     @Nonnull
     public List<String> getVariants(@Nonnull String prefix) {
@@ -287,10 +845,24 @@ public class BaseSpellChecker implements SpellCheckerEngine {
 
     }
 
+    /**
+     * Releases all bundled dictionaries, loads and reloads requested before are dropped once finished
+     */
     @Override
     public void reset() {
-        bundledDictionaries.clear();
-        dictionaries.clear();
+        myResetCount.incrementAndGet();
+        ScheduledFuture<?> eviction = myEviction.getAndSet(null);
+        if (eviction != null) {
+            eviction.cancel(false);
+        }
+        DictionarySet dictionaries = myDictionaries.getAndSet(DictionarySet.EMPTY);
+        for (Dictionary dictionary : dictionaries.bundled()) {
+            releaseDictionary(dictionary);
+        }
+        if (dictionaries.merged() != null) {
+            myRegistry.release(dictionaries.merged());
+        }
+        dictionariesChanged();
     }
 
     @Override
@@ -300,19 +872,25 @@ public class BaseSpellChecker implements SpellCheckerEngine {
 
     @Override
     public void removeDictionary(@Nonnull String name) {
-        Dictionary dictionaryByName = getBundledDictionaryByName(name);
-        if (dictionaryByName != null) {
-            bundledDictionaries.remove(dictionaryByName);
+        while (true) {
+            DictionarySet dictionaries = myDictionaries.get();
+            Dictionary dictionaryByName = dictionaries.findBundled(name);
+            if (dictionaryByName == null) {
+                return;
+            }
+            if (dictionaries.merged() != null) {
+                dictionaries.merged().mask(name);
+            }
+            if (myDictionaries.compareAndSet(dictionaries, dictionaries.withoutBundled(dictionaryByName))) {
+                releaseDictionary(dictionaryByName);
+                dictionariesChanged();
+                return;
+            }
         }
     }
 
     @Nullable
     public Dictionary getBundledDictionaryByName(@Nonnull String name) {
-        for (Dictionary dictionary : bundledDictionaries) {
-            if (name.equals(dictionary.getName())) {
-                return dictionary;
-            }
-        }
-        return null;
+        return myDictionaries.get().findBundled(name);
     }
 }
@@ -0,0 +1,241 @@
+package com.intellij.spellchecker.engine;
+
+import com.intellij.spellchecker.compress.CompressedDictionary;
+import com.intellij.spellchecker.compress.CompressedDictionaryFormat;
+import consulo.application.util.concurrent.AppExecutorUtil;
+import consulo.container.boot.ContainerPathManager;
+import consulo.logging.Logger;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Keeps dictionaries compiled on first run into {@link CompressedDictionaryFormat} under the system directory,
+ * so following starts only map them instead of parsing the source again.
+ * <p>
+ * Files are named by the source content hash, {@link Transformation#VERSION} and {@link CompressedDictionaryFormat#VERSION}.
+ * The modification time of a file is its last use, least recently used files are deleted once the total size
+ * exceeds the limit, except files of dictionaries still in use, which may be mapped. Unreadable files are deleted,
+ * so the dictionary is parsed and stored again.
+ * <p>
+ * Loading checks only the file header. Rows of a file not stored by this process are checked once per session
+ * in background, a corrupted file is deleted then and compiled again on the next start. A file which can't be deleted
+ * because it is still mapped, as on Windows, is marked and deleted once it is requested again.
+ *
+ * @since 2026-10-17
+ */
+class CompiledDictionaryStorage {
+    private static final Logger LOG = Logger.getInstance(CompiledDictionaryStorage.class);
+
+    private static final String EXTENSION = ".dicz";
+    // marks a corrupted file which couldn't be deleted
+    private static final String DELETED_EXTENSION = ".deleted";
+    private static final long SIZE_LIMIT = Long.getLong("spellchecker.compiled.cache.limit.mb", 256) << 20;
+
+    @Nonnull
+    private final Path myDirectory;
+    private final long mySizeLimit;
+    @Nonnull
+    private final Executor myVerifier;
+    // files stored or verified in this session
+    private final Set<Path> myVerified = ConcurrentHashMap.newKeySet();
+
+    CompiledDictionaryStorage() {
+        this(
+            Path.of(ContainerPathManager.get().getSystemPath(), "spellchecker", "compiled"),
+            SIZE_LIMIT,
+            AppExecutorUtil.getAppExecutorService()
+        );
+    }
+
+    /**
+     * Storage verifying loaded files in place
+     */
+    CompiledDictionaryStorage(@Nonnull Path directory) {
+        this(directory, SIZE_LIMIT, Runnable::run);
+    }
+
+    CompiledDictionaryStorage(@Nonnull Path directory, long sizeLimit, @Nonnull Executor verifier) {
+        myDirectory = directory;
+        mySizeLimit = sizeLimit;
+        myVerifier = verifier;
+    }
+
+    boolean contains(@Nonnull String contentHash) {
+        Path file = getFile(contentHash);
+        return Files.isRegularFile(file) && !Files.exists(getDeletedMark(file));
+    }
+
+    @Nullable
+    CompressedDictionary load(@Nonnull String contentHash, @Nonnull String name) {
+        Path file = getFile(contentHash);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        if (Files.exists(getDeletedMark(file))) {
+            discard(file);
+            return null;
+        }
+        CompressedDictionary dictionary;
+        try {
+            dictionary = CompressedDictionaryFormat.read(file, name);
+        }
+        catch (IOException e) {
+            LOG.warn("Couldn't read compiled dictionary " + file + ", it will be compiled again", e);
+            discard(file);
+            return null;
+        }
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        }
+        catch (IOException e) {
+            LOG.debug("Couldn't touch compiled dictionary " + file);
+        }
+        if (myVerified.add(file)) {
+            myVerifier.execute(() -> verify(file));
+        }
+        return dictionary;
+    }
+
+    private void verify(@Nonnull Path file) {
+        try {
+            CompressedDictionaryFormat.verify(file);
+        }
+        catch (IOException e) {
+            LOG.warn("Compiled dictionary " + file + " is corrupted, it will be compiled again", e);
+            myVerified.remove(file);
+            discard(file);
+        }
+    }
+
+    void store(@Nonnull String contentHash, @Nonnull CompressedDictionary dictionary) {
+        store(contentHash, dictionary, hash -> false);
+    }
+
+    /**
+     * @param inUse whether the dictionary with the given content hash is in use, so its file is not evicted
+     */
+    void store(@Nonnull String contentHash, @Nonnull CompressedDictionary dictionary, @Nonnull Predicate<String> inUse) {
+        Path file = getFile(contentHash);
+        try {
+            Files.createDirectories(myDirectory);
+            Path tempFile = Files.createTempFile(myDirectory, contentHash, ".tmp");
+            try {
+                CompressedDictionaryFormat.write(dictionary, tempFile);
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Files.deleteIfExists(getDeletedMark(file));
+                myVerified.add(file);
+            }
+            finally {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+        catch (IOException e) {
+            LOG.warn("Couldn't store compiled dictionary " + file, e);
+            return;
+        }
+        evictLeastRecentlyUsed(file, inUse);
+    }
+
+    /**
+     * Deletes least recently used compiled dictionaries except {@code stored} and the ones in use
+     * until the total size fits the limit
+     */
+    private void evictLeastRecentlyUsed(@Nonnull Path stored, @Nonnull Predicate<String> inUse) {
+        record CompiledFile(@Nonnull Path path, long size, long lastUsed) {
+            @Nonnull
+            String contentHash() {
+                String name = path.getFileName().toString();
+                return name.substring(0, name.indexOf('.'));
+            }
+        }
+
+        List<CompiledFile> files = new ArrayList<>();
+        long totalSize = 0;
+        try (Stream<Path> paths = Files.list(myDirectory)) {
+            for (Path path : paths.toList()) {
+                if (!path.getFileName().toString().endsWith(EXTENSION)) {
+                    continue;
+                }
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                files.add(new CompiledFile(path, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                totalSize += attributes.size();
+            }
+        }
+        catch (IOException e) {
+            LOG.warn("Couldn't list compiled dictionaries in " + myDirectory, e);
+            return;
+        }
+
+        files.sort(Comparator.comparingLong(CompiledFile::lastUsed));
+        for (CompiledFile file : files) {
+            if (totalSize <= mySizeLimit) {
+                break;
+            }
+            if (file.path().equals(stored) || inUse.test(file.contentHash())) {
+                continue;
+            }
+            if (delete(file.path())) {
+                LOG.debug("Evicted compiled dictionary " + file.path());
+                totalSize -= file.size();
+            }
+        }
+    }
+
+    /**
+     * Deletes a file which must not be loaded anymore, or marks it to be deleted once it is requested again
+     * if it's still mapped and can't be deleted
+     */
+    private static void discard(@Nonnull Path file) {
+        Path mark = getDeletedMark(file);
+        try {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(mark);
+        }
+        catch (IOException e) {
+            LOG.debug("Couldn't delete compiled dictionary " + file + ", it will be deleted later");
+            try {
+                if (!Files.exists(mark)) {
+                    Files.createFile(mark);
+                }
+            }
+            catch (IOException markException) {
+                LOG.warn("Couldn't mark compiled dictionary " + file + " as deleted", markException);
+            }
+        }
+    }
+
+    @Nonnull
+    private static Path getDeletedMark(@Nonnull Path file) {
+        return file.resolveSibling(file.getFileName() + DELETED_EXTENSION);
+    }
+
+    private static boolean delete(@Nonnull Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        }
+        catch (IOException e) {
+            LOG.warn("Couldn't delete compiled dictionary " + file, e);
+            return false;
+        }
+    }
+
+    @Nonnull
+    private Path getFile(@Nonnull String contentHash) {
+        return myDirectory.resolve(contentHash + ".t" + Transformation.VERSION + ".v" + CompressedDictionaryFormat.VERSION + EXTENSION);
+    }
+}
@@ -0,0 +1,318 @@
+package com.intellij.spellchecker.engine;
+
+import com.intellij.spellchecker.compress.CompressedDictionary;
+import com.intellij.spellchecker.compress.MergedDictionary;
+import com.intellij.spellchecker.dictionary.Dictionary;
+import com.intellij.spellchecker.dictionary.Loader;
+import consulo.annotation.component.ComponentScope;
+import consulo.annotation.component.ServiceAPI;
+import consulo.annotation.component.ServiceImpl;
+import consulo.logging.Logger;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Application wide registry of immutable {@link CompressedDictionary} instances.
+ * <p>
+ * Dictionaries are keyed by {@link Loader#getSourceId()} and {@link Loader#getContentHash()}, so every spellchecker engine
+ * shares one copy of the same bundled or folder dictionary. Each {@link #acquire} must be paired with {@link #release}.
+ * Dictionaries are compiled to {@link CompiledDictionaryStorage} on first use and mapped from there afterwards.
+ * Merged indices of registered dictionaries are shared the same way, keyed by the keys of their sources.
+ *
+ * @since 2026-10-17
+ */
+@Singleton
+@ServiceAPI(ComponentScope.APPLICATION)
+@ServiceImpl
+public class CompressedDictionaryRegistry {
+    private static final Logger LOG = Logger.getInstance(CompressedDictionaryRegistry.class);
+
+    private record Key(@Nonnull String sourceId, @Nonnull String contentHash) {
+    }
+
+    private static final class Entry {
+        private final Key myKey;
+        private int myRefCount;
+        private volatile CompressedDictionary myDictionary;
+
+        private Entry(@Nonnull Key key) {
+            myKey = key;
+        }
+
+        /**
+         * @param compiledOnly return {@code null} instead of parsing the loader, whose content may differ from the key
+         */
+        @Nullable
+        private CompressedDictionary getOrCreate(
+            @Nonnull Loader loader,
+            @Nonnull Transformation transform,
+            @Nullable CompiledDictionaryStorage storage,
+            @Nonnull Predicate<String> inUse,
+            boolean compiledOnly
+        ) {
+            CompressedDictionary dictionary = myDictionary;
+            if (dictionary == null) {
+                synchronized (this) {
+                    dictionary = myDictionary;
+                    if (dictionary == null) {
+                        dictionary = storage == null ? null : storage.load(myKey.contentHash(), loader.getName());
+                        if (dictionary == null) {
+                            if (compiledOnly) {
+                                return null;
+                            }
+                            dictionary = CompressedDictionary.create(loader, transform);
+                            if (storage != null) {
+                                storage.store(myKey.contentHash(), dictionary, inUse);
+                            }
+                        }
+                        myDictionary = dictionary;
+                    }
+                    else {
+                        LOG.debug("Sharing " + myKey.sourceId());
+                    }
+                }
+            }
+            return dictionary;
+        }
+    }
+
+    private static final class MergedEntry {
+        private final List<Key> myKey;
+        private int myRefCount;
+        private volatile MergedDictionary myDictionary;
+
+        private MergedEntry(@Nonnull List<Key> key) {
+            myKey = key;
+        }
+
+        @Nullable
+        private MergedDictionary getOrMerge(@Nonnull List<CompressedDictionary> sources, @Nonnull Transformation transform) {
+            MergedDictionary dictionary = myDictionary;
+            if (dictionary == null) {
+                synchronized (this) {
+                    dictionary = myDictionary;
+                    if (dictionary == null) {
+                        dictionary = MergedDictionary.merge(sources, transform);
+                        myDictionary = dictionary;
+                    }
+                    else {
+                        LOG.debug("Sharing merged " + sources);
+                    }
+                }
+            }
+            return dictionary;
+        }
+    }
+
+    private final Map<Key, Entry> myEntries = new HashMap<>();
+    private final Map<CompressedDictionary, Entry> myEntriesByDictionary = new IdentityHashMap<>();
+    private final Map<List<Key>, MergedEntry> myMergedEntries = new HashMap<>();
+    // every engine gets its own copy of the shared merged index
+    private final Map<MergedDictionary, MergedEntry> myMergedEntriesByDictionary = new IdentityHashMap<>();
+    @Nullable
+    private final CompiledDictionaryStorage myStorage;
+
+    @Inject
+    public CompressedDictionaryRegistry() {
+        this(new CompiledDictionaryStorage());
+    }
+
+    CompressedDictionaryRegistry(@Nullable CompiledDictionaryStorage storage) {
+        myStorage = storage;
+    }
+
+    @Nonnull
+    public CompressedDictionary acquire(@Nonnull Loader loader, @Nonnull Transformation transform) {
+        return acquire(loader, transform, loader.getSourceId() == null ? null : loader.getContentHash());
+    }
+
+    /**
+     * Same as {@link #acquire(Loader, Transformation)} with the content hash already computed by the caller,
+     * the loader content is parsed only if nothing is registered or compiled for it
+     */
+    @Nonnull
+    public CompressedDictionary acquire(@Nonnull Loader loader, @Nonnull Transformation transform, @Nullable String contentHash) {
+        try {
+            CompressedDictionary dictionary = acquire(loader, transform, contentHash, false);
+            return dictionary != null ? dictionary : CompressedDictionary.create(loader, transform);
+        }
+        finally {
+            // the hashed content is not parsed if the dictionary was shared or compiled
+            loader.releaseContent();
+        }
+    }
+
+    /**
+     * Same as {@link #acquire}, but only if the dictionary is already built by another engine or compiled to the storage,
+     * so it is not parsed
+     *
+     * @param contentHash hash of the wanted content, which is not parsed from the loader even if the storage can't map it,
+     *                    so the result never mixes up versions of a changing source
+     */
+    @Nullable
+    public CompressedDictionary acquireIfCompiled(@Nonnull Loader loader, @Nonnull Transformation transform, @Nullable String contentHash) {
+        if (loader.getSourceId() == null || contentHash == null) {
+            return null;
+        }
+        synchronized (myEntries) {
+            Entry entry = myEntries.get(new Key(loader.getSourceId(), contentHash));
+            boolean compiled = entry != null
+                ? entry.myDictionary != null
+                : myStorage != null && myStorage.contains(contentHash);
+            if (!compiled) {
+                return null;
+            }
+        }
+        return acquire(loader, transform, contentHash, true);
+    }
+
+    @Nullable
+    private CompressedDictionary acquire(
+        @Nonnull Loader loader,
+        @Nonnull Transformation transform,
+        @Nullable String contentHash,
+        boolean compiledOnly
+    ) {
+        String sourceId = loader.getSourceId();
+        if (sourceId == null || contentHash == null) {
+            return null;
+        }
+
+        Entry entry;
+        synchronized (myEntries) {
+            entry = myEntries.computeIfAbsent(new Key(sourceId, contentHash), Entry::new);
+            entry.myRefCount++;
+        }
+
+        CompressedDictionary dictionary;
+        try {
+            dictionary = entry.getOrCreate(loader, transform, myStorage, this::isInUse, compiledOnly);
+        }
+        catch (RuntimeException | Error e) {
+            synchronized (myEntries) {
+                releaseEntry(entry);
+            }
+            throw e;
+        }
+
+        synchronized (myEntries) {
+            if (dictionary == null) {
+                releaseEntry(entry);
+            }
+            else {
+                myEntriesByDictionary.put(dictionary, entry);
+            }
+        }
+        return dictionary;
+    }
+
+    /**
+     * Merges the sources once for all engines merging the same registered dictionaries in the same order,
+     * dictionaries not acquired from this registry are merged without sharing. Each call returns its own copy
+     * of the index, so sources masked by one engine still answer in others.
+     *
+     * @return merged index to be released by {@link #release} or {@code null} if the sources don't fit into a single alphabet
+     */
+    @Nullable
+    public MergedDictionary acquireMerged(@Nonnull List<CompressedDictionary> sources, @Nonnull Transformation transform) {
+        MergedEntry entry = null;
+        synchronized (myEntries) {
+            List<Key> key = new ArrayList<>(sources.size());
+            for (CompressedDictionary source : sources) {
+                Entry sourceEntry = myEntriesByDictionary.get(source);
+                if (sourceEntry == null) {
+                    key = null;
+                    break;
+                }
+                key.add(sourceEntry.myKey);
+            }
+            if (key != null) {
+                entry = myMergedEntries.computeIfAbsent(List.copyOf(key), MergedEntry::new);
+                entry.myRefCount++;
+            }
+        }
+        if (entry == null) {
+            return MergedDictionary.merge(sources, transform);
+        }
+
+        MergedDictionary dictionary;
+        try {
+            dictionary = entry.getOrMerge(sources, transform);
+        }
+        catch (RuntimeException | Error e) {
+            synchronized (myEntries) {
+                releaseMergedEntry(entry);
+            }
+            throw e;
+        }
+
+        synchronized (myEntries) {
+            if (dictionary == null) {
+                releaseMergedEntry(entry);
+                return null;
+            }
+            MergedDictionary copy = dictionary.copy();
+            myMergedEntriesByDictionary.put(copy, entry);
+            return copy;
+        }
+    }
+
+    /**
+     * Does nothing for dictionaries which were not shared through this registry
+     */
+    public void release(@Nonnull Dictionary dictionary) {
+        synchronized (myEntries) {
+            Entry entry = myEntriesByDictionary.get(dictionary);
+            if (entry != null) {
+                releaseEntry(entry);
+            }
+            MergedEntry mergedEntry = myMergedEntriesByDictionary.remove(dictionary);
+            if (mergedEntry != null) {
+                releaseMergedEntry(mergedEntry);
+            }
+        }
+    }
+
+    /**
+     * @return true if a dictionary with the given content is acquired, so its compiled file may be mapped
+     */
+    private boolean isInUse(@Nonnull String contentHash) {
+        synchronized (myEntries) {
+            for (Key key : myEntries.keySet()) {
+                if (key.contentHash().equals(contentHash)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private void releaseMergedEntry(@Nonnull MergedEntry entry) {
+        if (--entry.myRefCount > 0) {
+            return;
+        }
+        myMergedEntries.remove(entry.myKey);
+        LOG.debug("Released merged " + entry.myKey.size() + " dictionaries");
+    }
+
+    private void releaseEntry(@Nonnull Entry entry) {
+        if (--entry.myRefCount > 0) {
+            return;
+        }
+        myEntries.remove(entry.myKey);
+        CompressedDictionary dictionary = entry.myDictionary;
+        if (dictionary != null) {
+            myEntriesByDictionary.remove(dictionary);
+        }
+        LOG.debug("Released " + entry.myKey.sourceId());
+    }
+}
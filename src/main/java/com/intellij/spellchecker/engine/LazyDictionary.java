@@ -0,0 +1,322 @@
+package com.intellij.spellchecker.engine;
+
+import com.intellij.spellchecker.compress.CompressedDictionary;
+import com.intellij.spellchecker.dictionary.Dictionary;
+import com.intellij.spellchecker.dictionary.Loader;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Handle of a dictionary which is compressed only when a lookup reaches it.
+ * <p>
+ * Creating the handle reads the words once to fill the letters set and a Bloom filter, which answer most lookups
+ * of words absent in the dictionary. Other lookups acquire the {@link CompressedDictionary} from the registry,
+ * it is released again by {@link #evictIfIdle} once not used for a while. Given a loading executor, lookups don't wait
+ * for the dictionary: it is acquired on the executor and the lookup answers unknown meanwhile.
+ * <p>
+ * The dictionary is acquired again by the content hash the filter was built from. If that version is neither
+ * registered nor compiled anymore and the source changed meanwhile, the filter is rebuilt from the current version.
+ *
+ * @since 2026-10-17
+ */
+final class LazyDictionary implements Dictionary {
+    private static final int MAX_CHARS_IN_WORD = 64;
+    private static final int BITS_PER_WORD = 10;
+    private static final int HASHES_COUNT = 7;
+
+    /**
+     * Letters and Bloom filter of one version of the words
+     */
+    private record Filter(@Nonnull BitSet letters, @Nonnull long[] bits, int wordsCount) {
+        @Nonnull
+        static Filter build(@Nonnull Consumer<Consumer<? super CharSequence>> words, @Nonnull Transformation transform) {
+            BitSet letters = new BitSet();
+            long[][] hashes = {new long[1024]};
+            int[] count = new int[1];
+            StringBuilder buffer = new StringBuilder();
+            words.accept(line -> {
+                CharSequence word = transform.transform(line, buffer);
+                if (word == null || word.length() >= MAX_CHARS_IN_WORD) {
+                    return;
+                }
+                for (int i = 0; i < word.length(); i++) {
+                    letters.set(word.charAt(i));
+                }
+                if (count[0] == hashes[0].length) {
+                    hashes[0] = Arrays.copyOf(hashes[0], count[0] * 2);
+                }
+                hashes[0][count[0]++] = hash(word, 0, word.length());
+            });
+
+            long[] bits = new long[Math.max(1, (int) ((long) count[0] * BITS_PER_WORD + 63 >>> 6))];
+            for (int i = 0; i < count[0]; i++) {
+                long hash = hashes[0][i];
+                for (int k = 0; k < HASHES_COUNT; k++) {
+                    int bit = getBit(bits, hash, k);
+                    bits[bit >>> 6] |= 1L << bit;
+                }
+            }
+            return new Filter(letters, bits, count[0]);
+        }
+
+        boolean mightContain(long hash) {
+            for (int k = 0; k < HASHES_COUNT; k++) {
+                int bit = getBit(bits, hash, k);
+                if ((bits[bit >>> 6] & 1L << bit) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final Loader myLoader;
+    private final Transformation myTransform;
+    private final CompressedDictionaryRegistry myRegistry;
+    @Nullable
+    private final Executor myLoadingExecutor;
+    private final AtomicBoolean myLoading = new AtomicBoolean();
+    // both are replaced together when the dictionary is acquired from a changed source
+    private volatile Filter myFilter;
+    @Nullable
+    private volatile String myContentHash;
+
+    private volatile CompressedDictionary myDictionary;
+    private volatile long myLastAccess;
+    private boolean myReleased;
+
+    private LazyDictionary(
+        @Nonnull Loader loader,
+        @Nonnull Transformation transform,
+        @Nonnull CompressedDictionaryRegistry registry,
+        @Nullable Executor loadingExecutor,
+        @Nonnull Filter filter,
+        @Nullable String contentHash
+    ) {
+        myLoader = loader;
+        myTransform = transform;
+        myRegistry = registry;
+        myLoadingExecutor = loadingExecutor;
+        myFilter = filter;
+        myContentHash = contentHash;
+    }
+
+    @Nonnull
+    static LazyDictionary create(@Nonnull Loader loader, @Nonnull Transformation transform, @Nonnull CompressedDictionaryRegistry registry) {
+        return create(loader, transform, registry, null);
+    }
+
+    /**
+     * @param loadingExecutor executor acquiring the dictionary for lookups, {@code null} to acquire it in the lookup itself
+     */
+    @Nonnull
+    static LazyDictionary create(
+        @Nonnull Loader loader,
+        @Nonnull Transformation transform,
+        @Nonnull CompressedDictionaryRegistry registry,
+        @Nullable Executor loadingExecutor
+    ) {
+        // hashed before the lines are read, so loaders reading their source once parse exactly the hashed content
+        String contentHash = loader.getSourceId() == null ? null : loader.getContentHash();
+        return new LazyDictionary(loader, transform, registry, loadingExecutor, Filter.build(loader::loadLines, transform), contentHash);
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return myLoader.getName();
+    }
+
+    @Nullable
+    @Override
+    public Boolean contains(@Nonnull String word) {
+        return contains(word, 0, word.length());
+    }
+
+    /**
+     * Same as {@link CompressedDictionary#contains(CharSequence, int, int)}, the dictionary is acquired
+     * only if the word passes the Bloom filter
+     *
+     * @return {@code null} also while the dictionary is acquired on the loading executor
+     */
+    @Nullable
+    Boolean contains(@Nonnull CharSequence text, int start, int end) {
+        Boolean filtered = filter(text, start, end);
+        if (filtered == null || !filtered) {
+            return filtered;
+        }
+        CompressedDictionary dictionary = myLoadingExecutor == null ? getDictionary() : getDictionaryOrLoad(myLoadingExecutor);
+        return dictionary == null ? null : dictionary.contains(text, start, end);
+    }
+
+    /**
+     * @return true if the dictionary is being acquired on the loading executor and may contain the word
+     */
+    boolean isAcquiring(@Nonnull CharSequence text, int start, int end) {
+        return myLoading.get() && myDictionary == null && Boolean.TRUE.equals(filter(text, start, end));
+    }
+
+    /**
+     * @return {@code null} if no letter of the word is known, false if the word is surely absent, true if it may be present
+     */
+    @Nullable
+    private Boolean filter(@Nonnull CharSequence text, int start, int end) {
+        if (MAX_CHARS_IN_WORD <= end - start) {
+            return false;
+        }
+        Filter filter = myFilter;
+        boolean known = false;
+        boolean unknown = false;
+        for (int i = start; i < end; i++) {
+            if (filter.letters().get(Character.toLowerCase(text.charAt(i)))) {
+                known = true;
+            }
+            else {
+                unknown = true;
+            }
+        }
+        if (!known) {
+            return null;
+        }
+        return !unknown && filter.mightContain(hash(text, start, end));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return myFilter.wordsCount() == 0;
+    }
+
+    @Override
+    public void traverse(@Nonnull Consumer<String> action) {
+        CompressedDictionary dictionary = getDictionary();
+        if (dictionary != null) {
+            dictionary.traverse(action);
+        }
+    }
+
+    @Nullable
+    @Override
+    public Set<String> getWords() {
+        CompressedDictionary dictionary = getDictionary();
+        return dictionary == null ? null : dictionary.getWords();
+    }
+
+    @Override
+    public int size() {
+        return myFilter.wordsCount();
+    }
+
+    /**
+     * @return size of the filter and, while it is loaded, of the compressed dictionary in bytes
+     */
+    long getMemorySize() {
+        Filter filter = myFilter;
+        long size = (long) filter.bits().length * Long.BYTES + filter.letters().size() / Byte.SIZE;
+        CompressedDictionary dictionary = myDictionary;
+        return dictionary == null ? size : size + dictionary.getMemorySize();
+    }
+
+    /**
+     * @return acquired dictionary or {@code null} if the handle is already released
+     */
+    @Nullable
+    CompressedDictionary getDictionary() {
+        myLastAccess = System.nanoTime();
+        CompressedDictionary dictionary = myDictionary;
+        if (dictionary == null) {
+            synchronized (this) {
+                dictionary = myDictionary;
+                if (dictionary == null && !myReleased) {
+                    dictionary = acquire();
+                    myDictionary = dictionary;
+                }
+            }
+        }
+        return dictionary;
+    }
+
+    /**
+     * @return acquired dictionary or {@code null} if it is not acquired yet, then it is acquired on the executor
+     */
+    @Nullable
+    private CompressedDictionary getDictionaryOrLoad(@Nonnull Executor executor) {
+        myLastAccess = System.nanoTime();
+        CompressedDictionary dictionary = myDictionary;
+        if (dictionary == null && myLoading.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    getDictionary();
+                }
+                finally {
+                    myLoading.set(false);
+                }
+            });
+        }
+        return dictionary;
+    }
+
+    @Nonnull
+    private CompressedDictionary acquire() {
+        String contentHash = myContentHash;
+        CompressedDictionary dictionary = myRegistry.acquireIfCompiled(myLoader, myTransform, contentHash);
+        if (dictionary != null) {
+            return dictionary;
+        }
+        String currentHash = myLoader.getSourceId() == null ? null : myLoader.getContentHash();
+        dictionary = myRegistry.acquire(myLoader, myTransform, currentHash);
+        if (!Objects.equals(currentHash, contentHash)) {
+            CompressedDictionary words = dictionary;
+            myFilter = Filter.build(consumer -> words.traverse(consumer::accept), myTransform);
+            myContentHash = currentHash;
+        }
+        return dictionary;
+    }
+
+    /**
+     * @return true if the acquired dictionary was not used for {@code idleNanos} and was released
+     */
+    synchronized boolean evictIfIdle(long idleNanos) {
+        CompressedDictionary dictionary = myDictionary;
+        if (dictionary == null || System.nanoTime() - myLastAccess < idleNanos) {
+            return false;
+        }
+        myDictionary = null;
+        myRegistry.release(dictionary);
+        return true;
+    }
+
+    synchronized void release() {
+        myReleased = true;
+        CompressedDictionary dictionary = myDictionary;
+        if (dictionary != null) {
+            myDictionary = null;
+            myRegistry.release(dictionary);
+        }
+    }
+
+    private static int getBit(@Nonnull long[] bits, long hash, int k) {
+        int combined = (int) hash + k * (int) (hash >>> 32);
+        return (int) ((combined & 0xFFFFFFFFL) % ((long) bits.length << 6));
+    }
+
+    private static long hash(@Nonnull CharSequence text, int start, int end) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ Character.toLowerCase(text.charAt(i))) * 0x100000001b3L;
+        }
+        // murmur3 finalizer spreads FNV bits over both halves used by the filter
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ hash >>> 33;
+    }
+}
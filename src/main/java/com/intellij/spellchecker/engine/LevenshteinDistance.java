@@ -43,4 +43,54 @@ public class LevenshteinDistance implements Metrics {
 
         return distance[str1.length()][str2.length()];
     }
+
+    /**
+     * Keeps only two rows of the matrix and computes only cells of the diagonal band {@code |i - j| <= bound},
+     * since the cells outside of it are greater than the bound anyway. Stops as soon as a whole row exceeds the bound.
+     */
+    @Override
+    public int calculateMetrics(CharSequence str1, CharSequence str2, int bound) {
+        int n = str1.length();
+        int m = str2.length();
+        bound = Math.min(bound, Math.max(n, m));
+        int exceeded = bound + 1;
+        if (Math.abs(n - m) > bound) {
+            return exceeded;
+        }
+
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j <= bound ? j : exceeded;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - bound);
+            int to = Math.min(m, i + bound);
+            current[from - 1] = from == 1 && i <= bound ? i : exceeded;
+
+            int rowMinimum = current[from - 1];
+            char c = str1.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int value = minimum(
+                    previous[j] + 1,
+                    current[j - 1] + 1,
+                    previous[j - 1] + (c == str2.charAt(j - 1) ? 0 : 1)
+                );
+                current[j] = Math.min(value, exceeded);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (to < m) {
+                current[to + 1] = exceeded;
+            }
+            if (rowMinimum > bound) {
+                return exceeded;
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[m];
+    }
 }
@@ -15,6 +15,35 @@
  */
 package com.intellij.spellchecker.engine;
 
+import jakarta.annotation.Nonnull;
+
 public interface Metrics {
+    /**
+     * Metrics against a fixed first string, lets implementations prepare the query once for many candidates
+     */
+    interface Query {
+        int calculateMetrics(CharSequence str2, int bound);
+    }
+
     int calculateMetrics(CharSequence str1, CharSequence str2);
+
+    /**
+     * @return exact metrics if it does not exceed {@code bound}, any value greater than {@code bound} otherwise
+     */
+    default int calculateMetrics(CharSequence str1, CharSequence str2, int bound) {
+        return calculateMetrics(str1, str2);
+    }
+
+    @Nonnull
+    default Query forQuery(@Nonnull CharSequence str1) {
+        return (str2, bound) -> calculateMetrics(str1, str2, bound);
+    }
+
+    /**
+     * {@link MyersDistance} unless {@code spellchecker.metrics} system property is set to {@code levenshtein}
+     */
+    @Nonnull
+    static Metrics create() {
+        return "levenshtein".equals(System.getProperty("spellchecker.metrics")) ? new LevenshteinDistance() : new MyersDistance();
+    }
 }
@@ -0,0 +1,118 @@
+package com.intellij.spellchecker.engine;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Levenshtein distance computed by Myers' bit-vector algorithm: a whole column of the matrix is kept
+ * in a single {@code long}, so every candidate character costs a few word operations.
+ * Queries longer than 64 characters fall back to {@link LevenshteinDistance}.
+ *
+ * @since 2026-10-17
+ */
+public class MyersDistance implements Metrics {
+    private static final int MAX_QUERY_LENGTH = Long.SIZE;
+
+    private final LevenshteinDistance myFallback = new LevenshteinDistance();
+
+    @Override
+    public int calculateMetrics(CharSequence str1, CharSequence str2) {
+        return calculateMetrics(str1, str2, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int calculateMetrics(CharSequence str1, CharSequence str2, int bound) {
+        return forQuery(str1).calculateMetrics(str2, bound);
+    }
+
+    @Nonnull
+    @Override
+    public Query forQuery(@Nonnull CharSequence str1) {
+        if (str1.length() > MAX_QUERY_LENGTH) {
+            return myFallback.forQuery(str1);
+        }
+        return new BitQuery(str1);
+    }
+
+    private static final class BitQuery implements Query {
+        private final int myLength;
+        private final long[] myAsciiMasks = new long[128];
+        private final char[] myLetters;
+        private final long[] myMasks;
+        private int myLettersCount;
+
+        private BitQuery(@Nonnull CharSequence query) {
+            myLength = query.length();
+            myLetters = new char[myLength];
+            myMasks = new long[myLength];
+            for (int i = 0; i < myLength; i++) {
+                char c = query.charAt(i);
+                if (c < myAsciiMasks.length) {
+                    myAsciiMasks[c] |= 1L << i;
+                    continue;
+                }
+                int index = indexOf(c);
+                if (index < 0) {
+                    index = myLettersCount++;
+                    myLetters[index] = c;
+                }
+                myMasks[index] |= 1L << i;
+            }
+        }
+
+        private int indexOf(char c) {
+            for (int i = 0; i < myLettersCount; i++) {
+                if (myLetters[i] == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private long getMask(char c) {
+            if (c < myAsciiMasks.length) {
+                return myAsciiMasks[c];
+            }
+            int index = indexOf(c);
+            return index < 0 ? 0 : myMasks[index];
+        }
+
+        @Override
+        public int calculateMetrics(CharSequence str2, int bound) {
+            int n = str2.length();
+            bound = Math.min(bound, Math.max(myLength, n));
+            if (Math.abs(myLength - n) > bound) {
+                return bound + 1;
+            }
+            if (myLength == 0) {
+                return n;
+            }
+
+            long last = 1L << myLength - 1;
+            long positive = -1L;
+            long negative = 0L;
+            int score = myLength;
+            for (int j = 0; j < n; j++) {
+                long equal = getMask(str2.charAt(j));
+                long vertical = equal | negative;
+                long horizontal = ((equal & positive) + positive ^ positive) | equal;
+                long horizontalPositive = negative | ~(horizontal | positive);
+                long horizontalNegative = positive & horizontal;
+                if ((horizontalPositive & last) != 0) {
+                    score++;
+                }
+                else if ((horizontalNegative & last) != 0) {
+                    score--;
+                }
+                // the rest of the candidate can lower the distance by at most one per character
+                if (score - (n - j - 1) > bound) {
+                    return bound + 1;
+                }
+                horizontalPositive = horizontalPositive << 1 | 1;
+                horizontalNegative <<= 1;
+                positive = horizontalNegative | ~(vertical | horizontalPositive);
+                negative = horizontalPositive & vertical;
+            }
+            return score;
+        }
+    }
+}
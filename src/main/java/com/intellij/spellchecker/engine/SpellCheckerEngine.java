@@ -23,8 +23,51 @@ import java.util.List;
 public interface SpellCheckerEngine {
     void loadDictionary(@Nonnull Loader loader);
 
+    /**
+     * Same as {@link #loadDictionary}, but the engine may postpone building the dictionary until it is needed
+     */
+    default void loadDictionaryLazily(@Nonnull Loader loader) {
+        loadDictionary(loader);
+    }
+
+    /**
+     * Loads a new version of the dictionary with the same name, which keeps answering lookups until the new one replaces it.
+     * Does nothing if the dictionary is removed before the new version is built.
+     *
+     * @param onReplaced called once the new version answers lookups
+     */
+    default void replaceDictionary(@Nonnull Loader loader, @Nonnull Runnable onReplaced) {
+        if (isDictionaryLoad(loader.getName())) {
+            removeDictionary(loader.getName());
+            loadDictionaryLazily(loader);
+            onReplaced.run();
+        }
+    }
+
     Transformation getTransformation();
 
+    /**
+     * Adds a listener called after a dictionary is loaded, replaced or removed and once loading finishes,
+     * whenever answers of {@link #isCorrect} may change. The listener is never called by default, so answers of such engines
+     * are expected to change only through the methods of this interface
+     */
+    default void addChangeListener(@Nonnull Runnable listener) {
+    }
+
+    /**
+     * @return true while some dictionaries are still loading, words absent in the loaded ones are considered correct then
+     */
+    default boolean isLoading() {
+        return false;
+    }
+
+    /**
+     * Runs the action once all dictionaries queued so far are loaded, right away if nothing is loading
+     */
+    default void whenLoaded(@Nonnull Runnable action) {
+        action.run();
+    }
+
     boolean isCorrect(@Nonnull String word);
 
     @Nonnull
@@ -0,0 +1,65 @@
+package com.intellij.spellchecker.engine;
+
+import jakarta.annotation.Nonnull;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR events of {@link SpellCheckerStatistics}, recorded if a flight recording enables them.
+ * <p>
+ * Loaded only when statistics are enabled and {@code jdk.jfr} is readable, which the module requires statically.
+ *
+ * @since 2026-10-17
+ */
+final class SpellCheckerEvents {
+    @Name("consulo.spellchecker.DictionaryLoad")
+    @Label("Spellchecker Dictionary Load")
+    @Category("Spellchecker")
+    static final class DictionaryLoadEvent extends Event {
+        @Label("Dictionary")
+        String name;
+        @Label("Load Time")
+        @Timespan
+        long loadTime;
+        @Label("Memory")
+        @DataAmount
+        long memorySize;
+    }
+
+    @Name("consulo.spellchecker.Suggestions")
+    @Label("Spellchecker Suggestions")
+    @Category("Spellchecker")
+    static final class SuggestionsEvent extends Event {
+        @Label("Time")
+        @Timespan
+        long time;
+        @Label("Candidates")
+        int candidates;
+    }
+
+    private SpellCheckerEvents() {
+    }
+
+    static void suggestionsCollected(long nanos, int candidates) {
+        SuggestionsEvent event = new SuggestionsEvent();
+        if (event.shouldCommit()) {
+            event.time = nanos;
+            event.candidates = candidates;
+            event.commit();
+        }
+    }
+
+    static void dictionaryLoaded(@Nonnull String name, long nanos, long memorySize) {
+        DictionaryLoadEvent event = new DictionaryLoadEvent();
+        if (event.shouldCommit()) {
+            event.name = name;
+            event.loadTime = nanos;
+            event.memorySize = memorySize;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.intellij.spellchecker.engine;
+
+import com.intellij.spellchecker.compress.CompressedDictionary;
+import com.intellij.spellchecker.dictionary.Dictionary;
+import consulo.annotation.component.ComponentScope;
+import consulo.annotation.component.ServiceAPI;
+import consulo.annotation.component.ServiceImpl;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import jakarta.inject.Singleton;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Application wide counters and histograms of the spellchecker costs: dictionary loads, {@link SpellCheckerEngine#isCorrect},
+ * {@link SpellCheckerEngine#getSuggestions} and tokens checked per inspection run.
+ * <p>
+ * Collection is disabled unless {@code -Dspellchecker.statistics=true} is set. Callers check {@link #ENABLED} before
+ * measuring anything, so a disabled build pays only for a constant folded branch. When enabled, dictionary loads and
+ * suggestions are also emitted as {@link SpellCheckerEvents} if {@code jdk.jfr} is available.
+ *
+ * @since 2026-10-17
+ */
+@Singleton
+@ServiceAPI(ComponentScope.APPLICATION)
+@ServiceImpl
+public class SpellCheckerStatistics {
+    public static final boolean ENABLED = Boolean.getBoolean("spellchecker.statistics");
+    // jdk.jfr is an optional dependency, events are not touched unless it is readable
+    private static final boolean EVENTS_ENABLED = ENABLED && ModuleLayer.boot().findModule("jdk.jfr")
+        .map(SpellCheckerStatistics.class.getModule()::canRead)
+        .orElse(false);
+
+    /**
+     * Answer of {@link SpellCheckerEngine#isCorrect}, every one except {@link #TYPO} means the word is accepted
+     */
+    public enum Verdict {
+        /** found in a dictionary */
+        CORRECT,
+        /** absent in all dictionaries knowing its letters */
+        TYPO,
+        /** letters unknown to all dictionaries */
+        UNKNOWN_LETTERS,
+        /** absent, but dictionaries are still loading */
+        LOADING,
+        /** too short or too long to check */
+        SKIPPED
+    }
+
+    /**
+     * @param memorySize estimated heap and direct memory of the loaded dictionary in bytes, -1 if unknown
+     * @param loadsCount number of times the dictionary was loaded, reloads included
+     */
+    public record DictionaryLoad(@Nonnull String name, long loadNanos, long memorySize, int loadsCount) {
+    }
+
+    /**
+     * Lock free histogram of non-negative values with power of two buckets, so percentiles are exact within a factor of two
+     */
+    public static final class Histogram {
+        private final LongAdder[] myBuckets = new LongAdder[Long.SIZE];
+        private final LongAdder mySum = new LongAdder();
+
+        Histogram() {
+            for (int i = 0; i < myBuckets.length; i++) {
+                myBuckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long value) {
+            long positive = Math.max(0, value);
+            myBuckets[Long.SIZE - Long.numberOfLeadingZeros(positive) - (positive == 0 ? 0 : 1)].increment();
+            mySum.add(positive);
+        }
+
+        public long getCount() {
+            long count = 0;
+            for (LongAdder bucket : myBuckets) {
+                count += bucket.sum();
+            }
+            return count;
+        }
+
+        public long getSum() {
+            return mySum.sum();
+        }
+
+        public double getMean() {
+            long count = getCount();
+            return count == 0 ? 0 : (double) getSum() / count;
+        }
+
+        /**
+         * @return upper bound of the bucket holding the given percentile, 0 if nothing was recorded
+         */
+        public long getPercentile(double percentile) {
+            long[] counts = new long[myBuckets.length];
+            long count = 0;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = myBuckets[i].sum();
+                count += counts[i];
+            }
+            long rank = (long) Math.ceil(count * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen > 0 && seen >= rank) {
+                    return i == Long.SIZE - 1 ? Long.MAX_VALUE : (1L << i + 1) - 1;
+                }
+            }
+            return 0;
+        }
+
+        void reset() {
+            for (LongAdder bucket : myBuckets) {
+                bucket.reset();
+            }
+            mySum.reset();
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + getCount() + ", mean=" + Math.round(getMean())
+                + ", p50<=" + getPercentile(50) + ", p99<=" + getPercentile(99);
+        }
+    }
+
+    private final LongAdder[] myVerdicts = new LongAdder[Verdict.values().length];
+    private final Histogram myIsCorrectNanos = new Histogram();
+    private final Histogram mySuggestionsNanos = new Histogram();
+    private final Histogram mySuggestionCandidates = new Histogram();
+    private final Histogram myTokensPerRun = new Histogram();
+    private final Map<String, DictionaryLoad> myDictionaryLoads = new ConcurrentHashMap<>();
+
+    public SpellCheckerStatistics() {
+        for (int i = 0; i < myVerdicts.length; i++) {
+            myVerdicts[i] = new LongAdder();
+        }
+    }
+
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public void wordChecked(@Nonnull Verdict verdict, long nanos) {
+        if (ENABLED) {
+            myVerdicts[verdict.ordinal()].increment();
+            myIsCorrectNanos.record(nanos);
+        }
+    }
+
+    /**
+     * @param candidates number of dictionary words the metrics was calculated for
+     */
+    public void suggestionsCollected(long nanos, int candidates) {
+        if (!ENABLED) {
+            return;
+        }
+        mySuggestionsNanos.record(nanos);
+        mySuggestionCandidates.record(candidates);
+        if (EVENTS_ENABLED) {
+            SpellCheckerEvents.suggestionsCollected(nanos, candidates);
+        }
+    }
+
+    public void inspectionRunFinished(int tokens) {
+        if (ENABLED) {
+            myTokensPerRun.record(tokens);
+        }
+    }
+
+    public void dictionaryLoaded(@Nonnull String name, long nanos, @Nullable Dictionary dictionary) {
+        if (!ENABLED) {
+            return;
+        }
+        long memorySize = getMemorySize(dictionary);
+        myDictionaryLoads.merge(
+            name,
+            new DictionaryLoad(name, nanos, memorySize, 1),
+            (previous, load) -> new DictionaryLoad(name, nanos, memorySize, previous.loadsCount() + 1)
+        );
+        if (EVENTS_ENABLED) {
+            SpellCheckerEvents.dictionaryLoaded(name, nanos, memorySize);
+        }
+    }
+
+    public long getCheckedWordsCount() {
+        return myIsCorrectNanos.getCount();
+    }
+
+    public long getVerdictCount(@Nonnull Verdict verdict) {
+        return myVerdicts[verdict.ordinal()].sum();
+    }
+
+    /**
+     * @return share of {@link SpellCheckerEngine#isCorrect} calls answered with the given verdict, from 0 to 1
+     */
+    public double getVerdictRatio(@Nonnull Verdict verdict) {
+        long total = 0;
+        for (LongAdder count : myVerdicts) {
+            total += count.sum();
+        }
+        return total == 0 ? 0 : (double) getVerdictCount(verdict) / total;
+    }
+
+    @Nonnull
+    public Histogram getIsCorrectNanos() {
+        return myIsCorrectNanos;
+    }
+
+    @Nonnull
+    public Histogram getSuggestionsNanos() {
+        return mySuggestionsNanos;
+    }
+
+    @Nonnull
+    public Histogram getSuggestionCandidates() {
+        return mySuggestionCandidates;
+    }
+
+    @Nonnull
+    public Histogram getTokensPerRun() {
+        return myTokensPerRun;
+    }
+
+    /**
+     * @return last load of every dictionary by its name
+     */
+    @Nonnull
+    public Map<String, DictionaryLoad> getDictionaryLoads() {
+        return new TreeMap<>(myDictionaryLoads);
+    }
+
+    public void reset() {
+        for (LongAdder count : myVerdicts) {
+            count.reset();
+        }
+        myIsCorrectNanos.reset();
+        mySuggestionsNanos.reset();
+        mySuggestionCandidates.reset();
+        myTokensPerRun.reset();
+        myDictionaryLoads.clear();
+    }
+
+    private static long getMemorySize(@Nullable Dictionary dictionary) {
+        if (dictionary instanceof CompressedDictionary compressedDictionary) {
+            return compressedDictionary.getMemorySize();
+        }
+        if (dictionary instanceof LazyDictionary lazyDictionary) {
+            return lazyDictionary.getMemorySize();
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Spellchecker statistics");
+        if (!ENABLED) {
+            return builder.append(" are disabled, start with -Dspellchecker.statistics=true").toString();
+        }
+        builder.append("\nisCorrect ns: ").append(myIsCorrectNanos);
+        for (Verdict verdict : Verdict.values()) {
+            builder.append("\n  ").append(verdict).append(": ").append(getVerdictCount(verdict));
+        }
+        builder.append("\ngetSuggestions ns: ").append(mySuggestionsNanos);
+        builder.append("\ngetSuggestions candidates: ").append(mySuggestionCandidates);
+        builder.append("\ntokens per inspection run: ").append(myTokensPerRun);
+        for (DictionaryLoad load : getDictionaryLoads().values()) {
+            builder.append("\n").append(load.name())
+                .append(": loaded in ").append(TimeUnit.NANOSECONDS.toMillis(load.loadNanos())).append(" ms")
+                .append(", ").append(load.memorySize()).append(" bytes")
+                .append(", loads ").append(load.loadsCount());
+        }
+        return builder.toString();
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.intellij.spellchecker.engine;
 
+import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 
 import java.util.Collection;
@@ -22,14 +23,75 @@ import java.util.HashSet;
 import java.util.Set;
 
 public class Transformation {
+    /**
+     * Version of the words transformation, compiled dictionaries depend on it and must be rebuilt once it is changed
+     */
+    public static final int VERSION = 1;
+
+    private static final int MIN_WORD_LENGTH = 3;
+    // String#toLowerCase depends on the default locale, e.g. turkish lowercases 'I' to dotless i
+    private static final boolean ASCII_LOWER_CASE = "ABCDEFGHIJKLMNOPQRSTUVWXYZ".toLowerCase().equals("abcdefghijklmnopqrstuvwxyz");
+
     @Nullable
     public String transform(@Nullable String word) {
-        if (word == null || word.trim().length() < 3) {
+        if (word == null || word.trim().length() < MIN_WORD_LENGTH) {
             return null;
         }
         return word.trim().toLowerCase();
     }
 
+    /**
+     * Same as {@link #transform(String)}, but ASCII words are lowercased into {@code buffer} without allocation
+     *
+     * @return {@code buffer}, a new string for other words or {@code null} if the word is skipped
+     */
+    @Nullable
+    public CharSequence transform(@Nonnull CharSequence word, @Nonnull StringBuilder buffer) {
+        int start = trimStart(word);
+        int end = trimEnd(word);
+        if (isSkipped(start, end)) {
+            return null;
+        }
+        buffer.setLength(0);
+        for (int i = start; i < end; i++) {
+            char c = word.charAt(i);
+            if (c >= 128 || !ASCII_LOWER_CASE) {
+                return transform(word.toString());
+            }
+            buffer.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
+        return buffer;
+    }
+
+    /**
+     * Start of the word range {@link #transform(String)} would keep, see {@link String#trim()}
+     */
+    public static int trimStart(@Nonnull CharSequence word) {
+        int start = 0;
+        while (start < word.length() && word.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * End of the word range {@link #transform(String)} would keep, see {@link String#trim()}
+     */
+    public static int trimEnd(@Nonnull CharSequence word) {
+        int end = word.length();
+        while (end > 0 && word.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * @return true if {@link #transform(String)} would skip the word with given trimmed range
+     */
+    public static boolean isSkipped(int start, int end) {
+        return end - start < MIN_WORD_LENGTH;
+    }
+
     @Nullable
     public Set<String> transform(@Nullable Collection<String> words) {
         if (words == null || words.isEmpty()) {
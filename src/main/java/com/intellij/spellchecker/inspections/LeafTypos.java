@@ -0,0 +1,76 @@
+package com.intellij.spellchecker.inspections;
+
+import com.intellij.spellchecker.util.VerdictCache;
+import consulo.document.util.TextRange;
+import consulo.language.ast.IElementType;
+import consulo.language.spellcheker.tokenizer.Tokenizer;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Typos of leaves checked by previous on the fly passes over a file, so only edited leaves are tokenized again.
+ * <p>
+ * A leaf is identified by its element type, tokenizer and 128 bits of the SHA-256 digest of its text, so the text itself
+ * is not kept and another text is practically never taken for it. The key doesn't describe the context of the leaf,
+ * so only leaves tokenized regardless of their context may be cached.
+ * Typos are valid for the generation of dictionaries they were found against.
+ *
+ * @since 2026-10-17
+ */
+final class LeafTypos {
+    /**
+     * @param range range of the typo in the leaf
+     */
+    record Typo(@Nonnull TextRange range, @Nonnull String word, boolean useRename) {
+    }
+
+    record LeafKey(@Nonnull IElementType type, @Nonnull Tokenizer<?> tokenizer, long digestHigh, long digestLow) {
+        @Nonnull
+        static LeafKey of(@Nonnull IElementType type, @Nonnull Tokenizer<?> tokenizer, @Nonnull String text) {
+            ByteBuffer chars = ByteBuffer.allocate(text.length() * Character.BYTES);
+            chars.asCharBuffer().put(text);
+            ByteBuffer digest = ByteBuffer.wrap(newDigest().digest(chars.array()));
+            return new LeafKey(type, tokenizer, digest.getLong(), digest.getLong());
+        }
+    }
+
+    private final VerdictCache<LeafKey, List<Typo>> myTypos;
+
+    LeafTypos(int capacity, int stripesCount) {
+        myTypos = new VerdictCache<>(capacity, stripesCount);
+    }
+
+    /**
+     * @return typos of a leaf with the same text found against the given generation, {@code null} if the leaf wasn't checked
+     */
+    @Nullable
+    List<Typo> get(@Nonnull LeafKey key, long generation) {
+        return myTypos.get(key, generation);
+    }
+
+    /**
+     * @param generation generation of dictionaries read before the leaf was checked
+     */
+    void put(@Nonnull LeafKey key, @Nonnull List<Typo> typos, long generation) {
+        myTypos.put(key, typos, generation);
+    }
+
+    int size() {
+        return myTypos.size();
+    }
+
+    @Nonnull
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -17,6 +17,7 @@ package com.intellij.spellchecker.inspections;
 
 import com.intellij.spellchecker.SimpleSpellcheckerEngine;
 import com.intellij.spellchecker.SpellCheckerManager;
+import com.intellij.spellchecker.engine.SpellCheckerStatistics;
 import consulo.annotation.access.RequiredReadAction;
 import consulo.annotation.component.ExtensionImpl;
 import consulo.document.util.TextRange;
@@ -29,8 +30,10 @@ import consulo.language.editor.inspection.LocalQuickFix;
 import consulo.language.editor.inspection.ProblemsHolder;
 import consulo.language.editor.refactoring.NamesValidator;
 import consulo.language.parser.ParserDefinition;
+import consulo.language.psi.PsiComment;
 import consulo.language.psi.PsiElement;
 import consulo.language.psi.PsiElementVisitor;
+import consulo.language.psi.PsiFile;
 import consulo.language.spellchecker.editor.SpellcheckerEngineManager;
 import consulo.language.spellchecker.editor.inspection.SpellcheckerInspection;
 import consulo.language.spellcheker.SpellcheckingStrategy;
@@ -40,17 +43,35 @@ import consulo.language.spellcheker.tokenizer.splitter.SplitContext;
 import consulo.language.spellcheker.tokenizer.splitter.TokenSplitter;
 import consulo.localize.LocalizeValue;
 import consulo.spellchecker.localize.SpellCheckerLocalize;
+import consulo.util.dataholder.Key;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import jakarta.inject.Inject;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 @ExtensionImpl
 public class SpellCheckingInspection extends SpellcheckerInspection {
     public static final String SPELL_CHECKING_INSPECTION_TOOL_NAME = "SpellCheckingInspection";
 
+    // words checked during the inspection run, counted only while statistics are enabled
+    private static final Key<AtomicInteger> TOKENS_CHECKED = Key.create("SpellCheckingInspection.tokensChecked");
+    // answers of SpellCheckerManager#hasProblem by word, so a word repeated in the file is checked once per inspection run
+    private static final Key<Map<String, Boolean>> WORD_PROBLEMS = Key.create("SpellCheckingInspection.wordProblems");
+
+    // typos of leaves checked by previous on the fly passes over the file, so only edited leaves are tokenized again
+    private static final Key<LeafTypos> LEAF_TYPOS = Key.create("SpellCheckingInspection.leafTypos");
+    private static final int LEAF_TYPOS_CACHE_SIZE = Integer.getInteger("spellchecker.leaf.cache.size", 1024);
+    private static final int LEAF_TYPOS_CACHE_STRIPES = 4;
+    private static final int MAX_CACHED_LEAF_LENGTH = 16 * 1024;
+
     @Inject
     protected SpellCheckingInspection(SpellcheckerEngineManager spellcheckerEngineManager) {
         super(spellcheckerEngineManager, SimpleSpellcheckerEngine.ID);
@@ -91,6 +112,15 @@ public class SpellCheckingInspection extends SpellcheckerInspection {
         SpellCheckingInspectionState localState = (SpellCheckingInspectionState) state;
 
         final SpellCheckerManager manager = SpellCheckerManager.getInstance(holder.getProject());
+        if (isOnTheFly) {
+            manager.restartWhenDictionariesLoaded(holder.getFile());
+        }
+        AtomicInteger tokensChecked = SpellCheckerStatistics.ENABLED ? new AtomicInteger() : null;
+        if (tokensChecked != null) {
+            session.putUserData(TOKENS_CHECKED, tokensChecked);
+        }
+        Map<String, Boolean> wordProblems = getWordProblems(session);
+        LeafTypos leafTypos = isOnTheFly && LEAF_TYPOS_CACHE_SIZE > 0 ? getLeafTypos(holder.getFile()) : null;
 
         return new PsiElementVisitor() {
             @Override
@@ -122,11 +152,96 @@ public class SpellCheckingInspection extends SpellcheckerInspection {
                     }
                 }
 
-                tokenize(element, new MyTokenConsumer(manager, holder, NamesValidator.forLanguage(language)));
+                MyTokenConsumer consumer =
+                    new MyTokenConsumer(manager, holder, NamesValidator.forLanguage(language), wordProblems, tokensChecked);
+                // comment tokenizers read only the text, tokenizers of other leaves may depend on their context
+                if (leafTypos != null && element instanceof PsiComment && element.getFirstChild() == null) {
+                    tokenizeLeaf(element, elementType, consumer, manager, holder, leafTypos);
+                }
+                else {
+                    tokenize(element, consumer);
+                }
             }
         };
     }
 
+    @Nonnull
+    private static Map<String, Boolean> getWordProblems(@Nonnull LocalInspectionToolSession session) {
+        Map<String, Boolean> wordProblems = session.getUserData(WORD_PROBLEMS);
+        if (wordProblems == null) {
+            wordProblems = new ConcurrentHashMap<>();
+            session.putUserData(WORD_PROBLEMS, wordProblems);
+        }
+        return wordProblems;
+    }
+
+    @Nonnull
+    private static LeafTypos getLeafTypos(@Nonnull PsiFile file) {
+        LeafTypos leafTypos = file.getUserData(LEAF_TYPOS);
+        if (leafTypos == null) {
+            // passes over the file may run concurrently, all of them should share one cache
+            leafTypos = file.putUserDataIfAbsent(LEAF_TYPOS, new LeafTypos(LEAF_TYPOS_CACHE_SIZE, LEAF_TYPOS_CACHE_STRIPES));
+        }
+        return leafTypos;
+    }
+
+    /**
+     * Same as {@link #tokenize}, but reports typos of a comment with the same text checked against the same dictionaries
+     * without tokenizing it again
+     */
+    @RequiredReadAction
+    private static void tokenizeLeaf(
+        @Nonnull PsiElement element,
+        @Nonnull IElementType elementType,
+        @Nonnull MyTokenConsumer consumer,
+        @Nonnull SpellCheckerManager manager,
+        @Nonnull ProblemsHolder holder,
+        @Nonnull LeafTypos leafTypos
+    ) {
+        SpellcheckingStrategy strategy = getSpellcheckingStrategy(element);
+        if (strategy == null) {
+            return;
+        }
+        Tokenizer tokenizer = strategy.getTokenizer(element);
+        String text = element.getText();
+        if (text == null || text.length() > MAX_CACHED_LEAF_LENGTH) {
+            //noinspection unchecked
+            tokenizer.tokenize(element, consumer);
+            return;
+        }
+
+        // read before checking, so typos found against changing dictionaries are tagged with the outdated generation
+        long generation = manager.getModificationCount();
+        LeafTypos.LeafKey key = LeafTypos.LeafKey.of(elementType, tokenizer, text);
+        List<LeafTypos.Typo> typos = leafTypos.get(key, generation);
+        if (typos != null) {
+            for (LeafTypos.Typo typo : typos) {
+                addRegularDescriptor(element, typo.range(), holder, typo.useRename(), typo.word());
+            }
+            return;
+        }
+        consumer.recordTypos(element);
+        //noinspection unchecked
+        tokenizer.tokenize(element, consumer);
+        typos = consumer.getRecordedTypos();
+        // words are accepted until all dictionaries are loaded, so typos found meanwhile are incomplete
+        if (typos != null && !manager.isLoadingDictionaries()) {
+            leafTypos.put(key, typos, generation);
+        }
+    }
+
+    @Override
+    public void inspectionFinished(
+        @Nonnull LocalInspectionToolSession session,
+        @Nonnull ProblemsHolder problemsHolder,
+        @Nonnull Object state
+    ) {
+        AtomicInteger tokensChecked = session.getUserData(TOKENS_CHECKED);
+        if (tokensChecked != null) {
+            SpellCheckerManager.getInstance(problemsHolder.getProject()).getStatistics().inspectionRunFinished(tokensChecked.get());
+        }
+    }
+
     /**
      * Splits element text in tokens according to spell checker strategy of given language
      *
@@ -178,15 +293,44 @@ public class SpellCheckingInspection extends SpellcheckerInspection {
         private final SpellCheckerManager myManager;
         private final ProblemsHolder myHolder;
         private final NamesValidator myNamesValidator;
+        private final Map<String, Boolean> myWordProblems;
+        @Nullable
+        private final AtomicInteger myTokensChecked;
+        // leaf whose typos are recorded, null if typos are not recorded or some token was not in the leaf
+        @Nullable
+        private PsiElement myRecordedElement;
+        @Nullable
+        private List<LeafTypos.Typo> myRecordedTypos;
         private PsiElement myElement;
         private String myText;
         private boolean myUseRename;
         private int myOffset;
 
-        public MyTokenConsumer(SpellCheckerManager manager, ProblemsHolder holder, NamesValidator namesValidator) {
+        public MyTokenConsumer(
+            SpellCheckerManager manager,
+            ProblemsHolder holder,
+            NamesValidator namesValidator,
+            Map<String, Boolean> wordProblems,
+            @Nullable AtomicInteger tokensChecked
+        ) {
             myManager = manager;
             myHolder = holder;
             myNamesValidator = namesValidator;
+            myWordProblems = wordProblems;
+            myTokensChecked = tokensChecked;
+        }
+
+        void recordTypos(@Nonnull PsiElement element) {
+            myRecordedElement = element;
+            myRecordedTypos = new ArrayList<>();
+        }
+
+        /**
+         * @return typos found since {@link #recordTypos} or {@code null} if some of them were not in the recorded leaf
+         */
+        @Nullable
+        List<LeafTypos.Typo> getRecordedTypos() {
+            return myRecordedTypos == null ? null : List.copyOf(myRecordedTypos);
         }
 
         @Override
@@ -199,6 +343,10 @@ public class SpellCheckingInspection extends SpellcheckerInspection {
             TextRange rangeToCheck,
             TokenSplitter splitter
         ) {
+            if (myRecordedElement != null && myRecordedElement != element) {
+                myRecordedElement = null;
+                myRecordedTypos = null;
+            }
             myElement = element;
             myText = text;
             myUseRename = useRename;
@@ -219,7 +367,16 @@ public class SpellCheckingInspection extends SpellcheckerInspection {
                 return;
             }
 
-            if (myManager.hasProblem(word)) {
+            if (myTokensChecked != null) {
+                myTokensChecked.incrementAndGet();
+            }
+
+            Boolean problem = myWordProblems.get(word);
+            if (problem == null) {
+                problem = myManager.hasProblem(word);
+                myWordProblems.put(word, problem);
+            }
+            if (problem) {
                 //Use tokenizer to generate accurate range in element (e.g. in case of escape sequences in element)
                 SpellcheckingStrategy strategy = getSpellcheckingStrategy(myElement);
 
@@ -231,6 +388,9 @@ public class SpellCheckingInspection extends SpellcheckerInspection {
 
                 if (myHolder.isOnTheFly()) {
                     addRegularDescriptor(myElement, range, myHolder, myUseRename, word);
+                    if (myRecordedTypos != null) {
+                        myRecordedTypos.add(new LeafTypos.Typo(range, word, myUseRename));
+                    }
                 }
                 else {
                     myAlreadyChecked.add(word);
@@ -0,0 +1,173 @@
+package com.intellij.spellchecker.util;
+
+import consulo.logging.Logger;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches dictionary folders with their subfolders and reports added, modified and removed {@code .dic} files.
+ * <p>
+ * Events are debounced per file: a file is reported once no event for it came for the debounce period,
+ * so a file being rewritten is reported once it is complete. Reported paths are in the same form
+ * as of {@link SPFileUtil#processFilesRecursively}. The listener is called on the watcher thread.
+ *
+ * @since 2026-10-17
+ */
+public final class DictionaryFolderWatcher implements Closeable {
+    private static final Logger LOG = Logger.getInstance(DictionaryFolderWatcher.class);
+
+    private final WatchService myWatchService;
+    private final long myDebounceNanos;
+    private final Consumer<Set<String>> myListener;
+    private final Thread myThread;
+
+    // accessed only by the watcher thread after it is started
+    private final Map<WatchKey, Path> myDirectories = new HashMap<>();
+    private final Map<String, Long> myDeadlines = new HashMap<>();
+
+    public DictionaryFolderWatcher(
+        @Nonnull Collection<String> folders,
+        long debounceMillis,
+        @Nonnull Consumer<Set<String>> listener
+    ) throws IOException {
+        myWatchService = FileSystems.getDefault().newWatchService();
+        myDebounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        myListener = listener;
+        for (String folder : folders) {
+            Path path = Paths.get(folder);
+            if (Files.isDirectory(path)) {
+                register(path, null);
+            }
+        }
+        myThread = new Thread(this::run, "Spellchecker Dictionary Watcher");
+        myThread.setDaemon(true);
+        myThread.start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        myThread.interrupt();
+        myWatchService.close();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key;
+                if (myDeadlines.isEmpty()) {
+                    key = myWatchService.take();
+                }
+                else {
+                    long timeout = Collections.min(myDeadlines.values()) - System.nanoTime();
+                    key = myWatchService.poll(Math.max(0, timeout), TimeUnit.NANOSECONDS);
+                }
+                if (key != null) {
+                    processEvents(key);
+                }
+                reportSettled();
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException ignored) {
+            // closed
+        }
+    }
+
+    private void processEvents(@Nonnull WatchKey key) {
+        Path directory = myDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (directory == null) {
+                continue;
+            }
+            if (event.kind() == OVERFLOW) {
+                // removed files are not known here, they stay loaded until settings are applied
+                LOG.debug("Events overflow in " + directory);
+                walk(directory, this::schedule);
+                continue;
+            }
+            Path child = directory.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                // files may have been created before the directory is registered
+                register(child, this::schedule);
+            }
+            else if (isDictionary(child)) {
+                schedule(child);
+            }
+        }
+        if (!key.reset()) {
+            myDirectories.remove(key);
+        }
+    }
+
+    private void schedule(@Nonnull Path file) {
+        myDeadlines.put(file.toString(), System.nanoTime() + myDebounceNanos);
+    }
+
+    private void reportSettled() {
+        long now = System.nanoTime();
+        Set<String> settled = new LinkedHashSet<>();
+        for (Iterator<Map.Entry<String, Long>> iterator = myDeadlines.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (entry.getValue() - now <= 0) {
+                settled.add(entry.getKey());
+                iterator.remove();
+            }
+        }
+        if (settled.isEmpty()) {
+            return;
+        }
+        try {
+            myListener.accept(settled);
+        }
+        catch (RuntimeException e) {
+            LOG.error("Couldn't process changed dictionaries " + settled, e);
+        }
+    }
+
+    /**
+     * Registers the directory with its subdirectories, passing found dictionaries to {@code existing} if not null
+     */
+    private void register(@Nonnull Path root, @Nullable Consumer<Path> existing) {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.forEach(path -> {
+                if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                    try {
+                        myDirectories.put(path.register(myWatchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), path);
+                    }
+                    catch (IOException e) {
+                        LOG.warn("Couldn't watch dictionary folder '" + path + "'", e);
+                    }
+                }
+                else if (existing != null && isDictionary(path)) {
+                    existing.accept(path);
+                }
+            });
+        }
+        catch (IOException | UncheckedIOException e) {
+            LOG.warn("Couldn't watch dictionary folder '" + root + "'", e);
+        }
+    }
+
+    private static void walk(@Nonnull Path root, @Nonnull Consumer<Path> consumer) {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.filter(DictionaryFolderWatcher::isDictionary).forEach(consumer);
+        }
+        catch (IOException | UncheckedIOException e) {
+            LOG.warn("Couldn't rescan dictionary folder '" + root + "'", e);
+        }
+    }
+
+    private static boolean isDictionary(@Nonnull Path path) {
+        return path.getFileName() != null && path.getFileName().toString().endsWith(".dic") && !Files.isDirectory(path);
+    }
+}
@@ -0,0 +1,65 @@
+package com.intellij.spellchecker.util;
+
+import jakarta.annotation.Nonnull;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Splits UTF-8 content into lines without allocating a {@link String} per line.
+ * Newlines are found at the byte level, ASCII lines are widened directly and other lines are decoded,
+ * both into a single reusable {@link CharBuffer} which is only valid during the consumer call.
+ * Line terminators are the same as of {@link java.io.BufferedReader#readLine()}.
+ *
+ * @since 2026-10-17
+ */
+public final class LineReader {
+    private LineReader() {
+    }
+
+    public static void readLines(@Nonnull ByteBuffer content, @Nonnull Consumer<? super CharSequence> consumer) {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer line = CharBuffer.allocate(256);
+
+        int limit = content.limit();
+        int start = content.position();
+        while (start < limit) {
+            int end = start;
+            boolean ascii = true;
+            byte b = 0;
+            while (end < limit && (b = content.get(end)) != '\n' && b != '\r') {
+                ascii &= b >= 0;
+                end++;
+            }
+
+            int length = end - start;
+            if (line.capacity() < length) {
+                line = CharBuffer.allocate(Math.max(length, line.capacity() * 2));
+            }
+            line.clear();
+            if (ascii) {
+                for (int i = start; i < end; i++) {
+                    line.put((char) content.get(i));
+                }
+            }
+            else {
+                decoder.reset();
+                decoder.decode(content.slice(start, length), line, true);
+                decoder.flush(line);
+            }
+            line.flip();
+            consumer.accept(line);
+
+            start = end + 1;
+            if (b == '\r' && end < limit && start < limit && content.get(start) == '\n') {
+                start++;
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.intellij.spellchecker.util;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded concurrent cache of spellchecking verdicts, e.g. by word or by checked text.
+ * <p>
+ * Keys are spread over independently locked stripes, each evicting its least recently used keys.
+ * Every verdict is tagged with the generation of dictionaries it was computed against: a stripe drops its words
+ * once a verdict of a newer generation is stored and never answers for another generation than the requested one,
+ * so verdicts computed before a dictionary change are not returned after it.
+ *
+ * @since 2026-10-17
+ */
+public final class VerdictCache<K, V> {
+    private static final class Stripe<K, V> extends LinkedHashMap<K, V> {
+        private final int myCapacity;
+        private long myGeneration;
+
+        private Stripe(int capacity) {
+            super(16, 0.75f, true);
+            myCapacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > myCapacity;
+        }
+    }
+
+    private final Stripe<K, V>[] myStripes;
+
+    /**
+     * @param capacity     maximal number of cached keys
+     * @param stripesCount number of independently locked parts, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public VerdictCache(int capacity, int stripesCount) {
+        int count = stripesCount <= 1 ? 1 : Integer.highestOneBit(stripesCount - 1) << 1;
+        myStripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            myStripes[i] = new Stripe<>(Math.max(1, capacity / count));
+        }
+    }
+
+    /**
+     * @return verdict computed for the given generation, {@code null} if it isn't cached
+     */
+    @Nullable
+    public V get(@Nonnull K key, long generation) {
+        Stripe<K, V> stripe = getStripe(key);
+        synchronized (stripe) {
+            return stripe.myGeneration == generation ? stripe.get(key) : null;
+        }
+    }
+
+    /**
+     * @param generation generation of dictionaries read before the verdict was computed
+     */
+    public void put(@Nonnull K key, @Nonnull V verdict, long generation) {
+        Stripe<K, V> stripe = getStripe(key);
+        synchronized (stripe) {
+            if (generation < stripe.myGeneration) {
+                return;
+            }
+            if (generation > stripe.myGeneration) {
+                stripe.clear();
+                stripe.myGeneration = generation;
+            }
+            stripe.put(key, verdict);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe<K, V> stripe : myStripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    @Nonnull
+    private Stripe<K, V> getStripe(@Nonnull K key) {
+        int hash = key.hashCode();
+        return myStripes[(hash ^ hash >>> 16) & myStripes.length - 1];
+    }
+}
@@ -5,6 +5,7 @@
 open module com.intellij.spellchecker {
     // TODO remove this dependency in future
     requires java.desktop;
+    requires static jdk.jfr;
 
     requires transitive consulo.language.spellchecker.api;
     requires consulo.language.spellchecker.editor.api;
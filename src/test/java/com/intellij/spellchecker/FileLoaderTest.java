@@ -0,0 +1,80 @@
+package com.intellij.spellchecker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileLoaderTest {
+    @Test
+    public void testHashedContentIsLoaded() throws IOException {
+        Path file = Files.createTempFile("spellchecker", ".dic");
+        try {
+            Files.writeString(file, "first\nsecond", StandardCharsets.UTF_8);
+            FileLoader loader = new FileLoader(file.toString(), "test.dic");
+            String hash = loader.getContentHash();
+            assertEquals(StreamLoader.hash("first\nsecond".getBytes(StandardCharsets.UTF_8)), hash);
+
+            Files.writeString(file, "third", StandardCharsets.UTF_8);
+            assertEquals(List.of("first", "second"), load(loader));
+            // nothing handed over anymore, so the file is read again
+            assertEquals(List.of("third"), load(loader));
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testHashedContentIsKeptUntilReleased() throws IOException {
+        Path file = Files.createTempFile("spellchecker", ".dic");
+        try {
+            Files.writeString(file, "first", StandardCharsets.UTF_8);
+            FileLoader loader = new FileLoader(file.toString(), "test.dic");
+            String hash = loader.getContentHash();
+
+            Files.writeString(file, "second", StandardCharsets.UTF_8);
+            assertEquals(hash, loader.getContentHash());
+
+            loader.releaseContent();
+            assertEquals(StreamLoader.hash("second".getBytes(StandardCharsets.UTF_8)), loader.getContentHash());
+            assertEquals(List.of("second"), load(loader));
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testLoadedFileCanBeDeleted() throws IOException {
+        Path file = Files.createTempFile("spellchecker", ".dic");
+        try {
+            Files.writeString(file, "first", StandardCharsets.UTF_8);
+            assertEquals(List.of("first"), load(new FileLoader(file.toString(), "test.dic")));
+            Files.delete(file);
+            assertFalse(Files.exists(file));
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testMissingFile() {
+        FileLoader loader = new FileLoader("missing/test.dic", "test.dic");
+        assertNull(loader.getContentHash());
+        assertTrue(load(loader).isEmpty());
+    }
+
+    private static List<String> load(FileLoader loader) {
+        List<String> result = new ArrayList<>();
+        loader.load(result::add);
+        return result;
+    }
+}
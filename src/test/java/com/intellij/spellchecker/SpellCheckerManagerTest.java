@@ -0,0 +1,169 @@
+package com.intellij.spellchecker;
+
+import com.intellij.spellchecker.dictionary.Loader;
+import com.intellij.spellchecker.dictionary.UserDictionary;
+import com.intellij.spellchecker.engine.SpellCheckerEngine;
+import com.intellij.spellchecker.engine.TestProject;
+import com.intellij.spellchecker.engine.Transformation;
+import com.intellij.spellchecker.settings.SpellCheckerSettings;
+import jakarta.annotation.Nonnull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpellCheckerManagerTest {
+    @Test
+    public void testVerdictsAreNotCachedWhileLoading() {
+        LoadingEngine engine = new LoadingEngine();
+        SpellCheckerManager manager = new SpellCheckerManager(TestProject.create(), null, engine, engine.myUserDictionary);
+        engine.publish("alpha");
+        assertTrue(manager.isLoadingDictionaries());
+        assertFalse(manager.hasProblem("betta"));
+        assertFalse(manager.hasProblem("betta"));
+        assertEquals(2, engine.myChecks);
+
+        engine.finishLoading();
+        assertFalse(manager.isLoadingDictionaries());
+        assertTrue(manager.hasProblem("betta"));
+        assertTrue(manager.hasProblem("betta"));
+        assertEquals(3, engine.myChecks);
+    }
+
+    @Test
+    public void testAcceptedWordIsNotReportedAgain() {
+        LoadingEngine engine = new LoadingEngine();
+        SpellCheckerManager manager = new SpellCheckerManager(TestProject.create(), null, engine, engine.myUserDictionary);
+        engine.finishLoading();
+        assertTrue(manager.hasProblem("betta"));
+
+        assertTrue(manager.acceptWord("betta"));
+        assertFalse(manager.hasProblem("betta"));
+    }
+
+    @Test
+    public void testFolderDictionariesAreReloaded() throws IOException {
+        Path folder = Files.createTempDirectory("spellchecker");
+        Path file = folder.resolve("test.dic");
+        try {
+            Files.writeString(file, "alpha", StandardCharsets.UTF_8);
+            SpellCheckerSettings settings = new SpellCheckerSettings();
+            settings.setDictionaryFoldersPaths(List.of(folder.toString()));
+            LoadingEngine engine = new LoadingEngine();
+            engine.finishLoading();
+            SpellCheckerManager manager = new SpellCheckerManager(TestProject.create(), settings, engine, engine.myUserDictionary);
+
+            manager.reloadFolderDictionaries();
+            assertFalse(manager.hasProblem("alpha"));
+            assertTrue(manager.hasProblem("betta"));
+
+            Files.writeString(file, "alpha\nbetta", StandardCharsets.UTF_8);
+            manager.reloadFolderDictionaries();
+            assertFalse(manager.hasProblem("betta"));
+
+            Files.delete(file);
+            manager.reloadFolderDictionaries();
+            assertTrue(manager.hasProblem("alpha"));
+            assertFalse(engine.isDictionaryLoad(file.toString()));
+        }
+        finally {
+            Files.deleteIfExists(file);
+            Files.delete(folder);
+        }
+    }
+
+    /**
+     * Engine accepting every word until {@link #finishLoading} is called, as {@code BaseSpellChecker} does
+     */
+    private static final class LoadingEngine implements SpellCheckerEngine {
+        private final Transformation myTransformation = new Transformation();
+        private final UserDictionary myUserDictionary = new UserDictionary("user");
+        private final Set<String> myWords = new HashSet<>();
+        private final Map<String, Set<String>> myDictionaries = new HashMap<>();
+        private final List<Runnable> myListeners = new ArrayList<>();
+        private boolean myLoading = true;
+        private int myChecks;
+
+        void publish(@Nonnull String word) {
+            myWords.add(word);
+            myListeners.forEach(Runnable::run);
+        }
+
+        void finishLoading() {
+            myLoading = false;
+            myListeners.forEach(Runnable::run);
+        }
+
+        @Override
+        public void loadDictionary(@Nonnull Loader loader) {
+            Set<String> words = new HashSet<>();
+            loader.load(words::add);
+            myDictionaries.put(loader.getName(), words);
+            myListeners.forEach(Runnable::run);
+        }
+
+        @Nonnull
+        @Override
+        public Transformation getTransformation() {
+            return myTransformation;
+        }
+
+        @Override
+        public void addChangeListener(@Nonnull Runnable listener) {
+            myListeners.add(listener);
+        }
+
+        @Override
+        public boolean isLoading() {
+            return myLoading;
+        }
+
+        @Override
+        public boolean isCorrect(@Nonnull String word) {
+            myChecks++;
+            return myLoading
+                || myWords.contains(word)
+                || myDictionaries.values().stream().anyMatch(words -> words.contains(word))
+                || Boolean.TRUE.equals(myUserDictionary.contains(word));
+        }
+
+        @Nonnull
+        @Override
+        public List<String> getSuggestions(@Nonnull String word, int threshold, int quality) {
+            return List.of();
+        }
+
+        @Nonnull
+        @Override
+        public List<String> getVariants(@Nonnull String prefix) {
+            return List.of();
+        }
+
+        @Override
+        public void reset() {
+            myWords.clear();
+            myDictionaries.clear();
+        }
+
+        @Override
+        public boolean isDictionaryLoad(@Nonnull String name) {
+            return myDictionaries.containsKey(name);
+        }
+
+        @Override
+        public void removeDictionary(@Nonnull String name) {
+            myDictionaries.remove(name);
+            myListeners.forEach(Runnable::run);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.intellij.spellchecker;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamLoaderTest {
+    @Test
+    public void testContentKeyIsHashedWithoutReading() {
+        InputStream stream = new ByteArrayInputStream("first\nsecond".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public byte[] readAllBytes() {
+                throw new AssertionError("content must not be read");
+            }
+        };
+        StreamLoader loader = new StreamLoader(stream, "test.dic", "test:test.dic", "test:test.dic@1.0");
+        assertTrue(loader.isContentHashKnown());
+        assertEquals(StreamLoader.hash("test:test.dic@1.0".getBytes(StandardCharsets.UTF_8)), loader.getContentHash());
+        assertNotEquals(
+            loader.getContentHash(),
+            new StreamLoader(stream, "test.dic", "test:test.dic", "test:test.dic@1.1").getContentHash()
+        );
+    }
+
+    @Test
+    public void testContentIsHashedWithoutKey() throws IOException {
+        byte[] content = "first\nsecond".getBytes(StandardCharsets.UTF_8);
+        StreamLoader loader = new StreamLoader(new ByteArrayInputStream(content), "test.dic", "test:test.dic");
+        assertFalse(loader.isContentHashKnown());
+        assertEquals(StreamLoader.hash(content), loader.getContentHash());
+
+        List<String> lines = new ArrayList<>();
+        loader.load(lines::add);
+        assertEquals(List.of("first", "second"), lines);
+    }
+}
@@ -0,0 +1,48 @@
+package com.intellij.spellchecker.compress;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AlphabetTest {
+    @Test
+    public void testIndexOfEveryLetter() {
+        Alphabet alphabet = new Alphabet();
+        for (char c = 'a'; c <= 'z'; c++) {
+            assertEquals(c - 'a' + 1, alphabet.getIndex(c, true));
+        }
+        for (char c = '\u0430'; c <= '\u044f'; c++) {
+            assertEquals(c - '\u0430' + 27, alphabet.getIndex(c, true));
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            assertEquals(c - 'a' + 1, alphabet.getIndex(c, false));
+        }
+        for (char c = '\u0430'; c <= '\u044f'; c++) {
+            assertEquals(c - '\u0430' + 27, alphabet.getIndex(c, false));
+        }
+        assertEquals(-1, alphabet.getIndex('\u4e00', false));
+    }
+
+    @Test
+    public void testFullAlphabet() {
+        Alphabet alphabet = new Alphabet();
+        for (int i = 1; i < UnitBitSet.MAX_UNIT_VALUE; i++) {
+            assertEquals(i, alphabet.getIndex((char) (0x4e00 + i * 7), true));
+        }
+        assertEquals(-1, alphabet.getIndex('a', true));
+        for (int i = 1; i < UnitBitSet.MAX_UNIT_VALUE; i++) {
+            assertEquals(i, alphabet.getIndex((char) (0x4e00 + i * 7), false));
+        }
+    }
+
+    @Test
+    public void testNextIndex() {
+        Alphabet alphabet = new Alphabet();
+        assertEquals(1, alphabet.add('a'));
+        assertEquals(2, alphabet.add('b'));
+        assertEquals(3, alphabet.add('a'));
+        assertEquals(1, alphabet.getIndex('a', false));
+        assertEquals(3, alphabet.getNextIndex(2, 'a', false));
+        assertEquals(-1, alphabet.getNextIndex(3, 'b', false));
+    }
+}
@@ -0,0 +1,60 @@
+package com.intellij.spellchecker.compress;
+
+import com.intellij.spellchecker.DefaultBundledDictionariesProvider;
+import com.intellij.spellchecker.StreamLoader;
+import com.intellij.spellchecker.engine.Transformation;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedDictionaryBuilderTest {
+    @Test
+    public void testSortRowsMatchesComparator() {
+        Alphabet alphabet = new Alphabet("abcdefghijklmnopqrstuvwxyz");
+        Encoder encoder = new Encoder(alphabet);
+        Random random = new Random(42);
+        int rowLength = 3;
+        List<byte[]> expected = new ArrayList<>();
+        byte[] rows = new byte[1000 * rowLength];
+        for (int row = 0; row < 1000; row++) {
+            byte[] bytes = new byte[rowLength];
+            random.nextBytes(bytes);
+            System.arraycopy(bytes, 0, rows, row * rowLength, rowLength);
+            expected.add(bytes);
+        }
+        expected.sort(Comparator.<byte[]>comparingInt(bytes -> encoder.getFirstLetterIndex(bytes[0]))
+            .thenComparing(CompressedDictionary::compareArrays));
+
+        byte[] sorted = CompressedDictionaryBuilder.sortRows(rows, rowLength, encoder);
+        for (int row = 0; row < expected.size(); row++) {
+            byte[] actual = Arrays.copyOfRange(sorted, row * rowLength, (row + 1) * rowLength);
+            assertArrayEquals(expected.get(row), actual);
+        }
+    }
+
+    @Test
+    public void testDirectRows() {
+        String name = "programming.dic";
+        CompressedDictionary dictionary = CompressedDictionary.create(
+            new StreamLoader(DefaultBundledDictionariesProvider.class.getResourceAsStream(name), name),
+            new Transformation()
+        );
+        ByteBuffer[] rows = CompressedDictionaryBuilder.toDirect(dictionary.getRows());
+        CompressedDictionary direct = new CompressedDictionary(dictionary.getAlphabet(), name, dictionary.size(), dictionary.getLengths(), rows);
+        for (ByteBuffer bucket : rows) {
+            assertTrue(bucket.isDirect());
+        }
+        assertEquals(dictionary.getWords(), direct.getWords());
+        for (String word : dictionary.getWords()) {
+            assertTrue(direct.contains(word), word);
+        }
+        assertFalse(direct.contains("notaprogrammingword"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.intellij.spellchecker.compress;
+
+import com.intellij.spellchecker.DefaultBundledDictionariesProvider;
+import com.intellij.spellchecker.StreamLoader;
+import com.intellij.spellchecker.engine.Transformation;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedDictionaryFormatTest {
+    @Test
+    public void testRoundTrip() throws IOException {
+        String name = "programming.dic";
+        CompressedDictionary dictionary = CompressedDictionary.create(
+            new StreamLoader(DefaultBundledDictionariesProvider.class.getResourceAsStream(name), name),
+            new Transformation()
+        );
+
+        Path file = Files.createTempFile("spellchecker", ".dicz");
+        try {
+            CompressedDictionaryFormat.write(dictionary, file);
+            CompressedDictionary restored = CompressedDictionaryFormat.read(file, name);
+
+            assertEquals(name, restored.getName());
+            assertEquals(dictionary.size(), restored.size());
+            assertEquals(dictionary.getWords(), restored.getWords());
+            for (String word : dictionary.getWords()) {
+                assertTrue(restored.contains(word), word);
+            }
+            assertFalse(restored.contains("notaprogrammingword"));
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testRowsAreVerifiedSeparately() throws IOException {
+        CompressedDictionary dictionary = CompressedDictionary.create(
+            new StreamLoader(new ByteArrayInputStream("first\nsecond".getBytes(StandardCharsets.UTF_8)), "test.dic"),
+            new Transformation()
+        );
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CompressedDictionaryFormat.write(dictionary, new DataOutputStream(bytes));
+        byte[] content = bytes.toByteArray();
+        CompressedDictionaryFormat.verify(ByteBuffer.wrap(content));
+
+        content[content.length - Integer.BYTES - 1] ^= 1;
+        assertNotNull(CompressedDictionaryFormat.read(ByteBuffer.wrap(content), "test.dic"));
+        assertThrows(IOException.class, () -> CompressedDictionaryFormat.verify(ByteBuffer.wrap(content)));
+
+        content[Integer.BYTES * 2] ^= 1;
+        assertThrows(IOException.class, () -> CompressedDictionaryFormat.read(ByteBuffer.wrap(content), "test.dic"));
+    }
+
+    @Test
+    public void testCorrupted() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putInt(42);
+        buffer.flip();
+        assertThrows(IOException.class, () -> CompressedDictionaryFormat.read(buffer, "broken"));
+    }
+}
@@ -34,6 +34,8 @@ import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SuppressWarnings({"JUnitTestCaseWithNonTrivialConstructors"})
 public class DictionaryTest {
@@ -84,6 +86,53 @@ public class DictionaryTest {
         assertEquals(odList, loaded);
     }
 
+    @Test
+    public void testContainsEveryLoadedWord() {
+        Transformation transform = new Transformation();
+        CompressedDictionary dictionary = CompressedDictionary.create(englishLoader(), transform);
+        englishLoader().load(s -> {
+            String t = transform.transform(s);
+            if (t != null && t.length() < UnitBitSet.MAX_CHARS_IN_WORD) {
+                assertTrue(dictionary.contains(t), t);
+            }
+        });
+        assertFalse(dictionary.contains("qwertyuiop"));
+        assertFalse(dictionary.contains("abcdefghijklmnopqrstuvwxyzabcdefghijklmnopqrstuvwxyzabcdefghij"));
+    }
+
+    @Test
+    public void testContainsRange() {
+        CompressedDictionary dictionary = CompressedDictionary.create(createLoader(Set.of("value", "result")), new Transformation());
+        String text = "getValue() + Result";
+        assertTrue(dictionary.contains(text, 3, 8));
+        assertTrue(dictionary.contains(text, 13, 19));
+        assertFalse(dictionary.contains(text, 3, 7));
+        assertFalse(dictionary.contains(text, 0, 8));
+        assertNull(dictionary.contains("123", 0, 3));
+    }
+
+    @Test
+    public void testWordsByFirstLetter() {
+        Transformation transform = new Transformation();
+        CompressedDictionary dictionary = CompressedDictionary.create(englishLoader(), transform);
+        Set<String> all = dictionary.getWords();
+        for (char first : new char[]{'a', 'q', 'z'}) {
+            Set<String> expected = new HashSet<>();
+            for (String word : all) {
+                if (word.charAt(0) == first) {
+                    expected.add(word);
+                }
+            }
+            assertEquals(expected, new HashSet<>(dictionary.getWords(first)));
+
+            Set<String> byLength = new HashSet<>();
+            for (int length = 0; length < UnitBitSet.MAX_CHARS_IN_WORD; length++) {
+                byLength.addAll(dictionary.getWords(first, length, length));
+            }
+            assertEquals(expected, byLength);
+        }
+    }
+
     public void cleanupDictionary() {
         Set<String> onDisk = Sets.newHashSet(FileUtil.PATH_HASHING_STRATEGY);
         englishLoader().load(s -> {
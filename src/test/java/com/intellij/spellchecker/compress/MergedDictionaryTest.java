@@ -0,0 +1,81 @@
+package com.intellij.spellchecker.compress;
+
+import com.intellij.spellchecker.DefaultBundledDictionariesProvider;
+import com.intellij.spellchecker.StreamLoader;
+import com.intellij.spellchecker.engine.Transformation;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MergedDictionaryTest {
+    private final Transformation transform = new Transformation();
+
+    @Test
+    public void testSameAnswersAsSources() {
+        List<CompressedDictionary> sources = new ArrayList<>();
+        for (String name : new String[]{"programming.dic", "programming-misc.dic", "names-misc.dic"}) {
+            sources.add(CompressedDictionary.create(
+                new StreamLoader(DefaultBundledDictionariesProvider.class.getResourceAsStream(name), name),
+                transform
+            ));
+        }
+        sources.add(dictionary("cyrillic.dic", "\u043f\u0440\u0438\u0432\u0435\u0442\n\u043c\u0438\u0440"));
+        MergedDictionary merged = MergedDictionary.merge(sources, transform);
+        assertNotNull(merged);
+
+        Set<String> words = new HashSet<>();
+        for (CompressedDictionary source : sources) {
+            words.addAll(source.getWords());
+        }
+        assertEquals(words, merged.getWords());
+        assertSameAnswers(sources, merged, words);
+
+        assertTrue(merged.mask("programming.dic"));
+        assertFalse(merged.mask("programming.dic"));
+        assertFalse(merged.isActiveSource("programming.dic"));
+        assertTrue(merged.isActiveSource("names-misc.dic"));
+        assertSameAnswers(sources.subList(1, sources.size()), merged, words);
+
+        merged.mask("cyrillic.dic");
+        assertNull(merged.contains("\u043c\u0438\u0440"));
+    }
+
+    private static void assertSameAnswers(List<CompressedDictionary> sources, MergedDictionary merged, Set<String> words) {
+        List<String> probes = new ArrayList<>(words);
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            char[] chars = new char[3 + random.nextInt(8)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = random.nextInt(10) == 0 ? (char) ('\u043f' + random.nextInt(3)) : (char) ('a' + random.nextInt(28));
+            }
+            probes.add(new String(chars));
+        }
+        for (String word : probes) {
+            assertEquals(probe(sources, word), merged.contains(word), word);
+        }
+    }
+
+    private static Boolean probe(List<CompressedDictionary> sources, String word) {
+        boolean known = false;
+        for (CompressedDictionary source : sources) {
+            Boolean contains = source.contains(word);
+            if (contains == Boolean.TRUE) {
+                return true;
+            }
+            known |= contains != null;
+        }
+        return known ? false : null;
+    }
+
+    private CompressedDictionary dictionary(String name, String content) {
+        return CompressedDictionary.create(new StreamLoader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), name), transform);
+    }
+}
@@ -0,0 +1,75 @@
+package com.intellij.spellchecker.compress;
+
+import com.intellij.spellchecker.DefaultBundledDictionariesProvider;
+import com.intellij.spellchecker.StreamLoader;
+import com.intellij.spellchecker.engine.Transformation;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SuggestionIndexTest {
+    private static CompressedDictionary createDictionary() {
+        String name = "programming.dic";
+        return CompressedDictionary.create(
+            new StreamLoader(DefaultBundledDictionariesProvider.class.getResourceAsStream(name), name),
+            new Transformation()
+        );
+    }
+
+    @Test
+    public void testRowsCoverAllWords() {
+        CompressedDictionary dictionary = createDictionary();
+        Set<String> words = new HashSet<>();
+        for (int row = 0; row < dictionary.getRowsCount(); row++) {
+            words.add(dictionary.getWord(row));
+        }
+        assertEquals(dictionary.getWords(), words);
+    }
+
+    @Test
+    public void testFindsTyposInAnyPosition() {
+        CompressedDictionary dictionary = createDictionary();
+        SuggestionIndex index = SuggestionIndex.build(dictionary, 2, Long.MAX_VALUE);
+        assertNotNull(index);
+        assertEquals(2, index.getMaxDistance());
+        for (String word : dictionary.getWords()) {
+            if (word.length() < 3) {
+                continue;
+            }
+            String replacedFirst = (word.charAt(0) == 'x' ? 'y' : 'x') + word.substring(1);
+            String swapped = word.charAt(1) + word.substring(0, 1) + word.substring(2);
+            String deleted = word.substring(0, word.length() / 2) + word.substring(word.length() / 2 + 1);
+            for (String typo : List.of(replacedFirst, swapped, deleted)) {
+                assertTrue(index.getCandidates(typo).contains(word), typo + " -> " + word);
+            }
+        }
+    }
+
+    @Test
+    public void testCandidatesAreDistinct() {
+        SuggestionIndex index = SuggestionIndex.build(createDictionary(), 2, Long.MAX_VALUE);
+        assertNotNull(index);
+        List<String> candidates = index.getCandidates("aaa");
+        assertEquals(new HashSet<>(candidates).size(), candidates.size());
+    }
+
+    @Test
+    public void testMemoryLimit() {
+        CompressedDictionary dictionary = createDictionary();
+        SuggestionIndex full = SuggestionIndex.build(dictionary, 2, Long.MAX_VALUE);
+        assertNotNull(full);
+        // sorted pairs coexist with the built arrays
+        assertNull(SuggestionIndex.build(dictionary, 2, full.getMemorySize()));
+        assertNull(SuggestionIndex.build(dictionary, 2, full.getMemorySize() / 2));
+
+        dictionary.buildSuggestionIndex(2, full.getMemorySize());
+        SuggestionIndex reduced = dictionary.getSuggestionIndex();
+        assertNotNull(reduced);
+        assertEquals(1, reduced.getMaxDistance());
+        assertTrue(reduced.getMemorySize() <= full.getMemorySize() / 2);
+    }
+}
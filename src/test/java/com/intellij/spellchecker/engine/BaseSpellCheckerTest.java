@@ -0,0 +1,74 @@
+package com.intellij.spellchecker.engine;
+
+import com.intellij.spellchecker.StreamLoader;
+import com.intellij.spellchecker.dictionary.EditableDictionary;
+import com.intellij.spellchecker.dictionary.EditableDictionaryLoader;
+import com.intellij.spellchecker.dictionary.Loader;
+import com.intellij.spellchecker.dictionary.UserDictionary;
+import jakarta.annotation.Nonnull;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BaseSpellCheckerTest {
+    @Test
+    public void testReplaceDictionary() {
+        BaseSpellChecker spellChecker = createSpellChecker();
+        AtomicInteger changes = new AtomicInteger();
+        spellChecker.addChangeListener(changes::incrementAndGet);
+        spellChecker.loadDictionaryLazily(loader("alpha\nbeta"));
+        assertTrue(spellChecker.isCorrect("beta"));
+        assertFalse(spellChecker.isCorrect("betta"));
+
+        AtomicInteger replaced = new AtomicInteger();
+        int changesBefore = changes.get();
+        spellChecker.replaceDictionary(loader("alpha\nbetta"), replaced::incrementAndGet);
+        assertEquals(1, replaced.get());
+        assertTrue(changes.get() > changesBefore);
+        assertTrue(spellChecker.isCorrect("betta"));
+        assertFalse(spellChecker.isCorrect("beta"));
+    }
+
+    @Test
+    public void testReplaceRemovedDictionaryDoesNothing() {
+        BaseSpellChecker spellChecker = createSpellChecker();
+        spellChecker.loadDictionaryLazily(loader("alpha\nbeta"));
+        spellChecker.removeDictionary("test.dic");
+
+        AtomicInteger replaced = new AtomicInteger();
+        spellChecker.replaceDictionary(loader("alpha\nbetta"), replaced::incrementAndGet);
+        assertEquals(0, replaced.get());
+        assertFalse(spellChecker.isDictionaryLoad("test.dic"));
+    }
+
+    static BaseSpellChecker createSpellChecker() {
+        BaseSpellChecker spellChecker = new BaseSpellChecker(TestProject.create());
+        // the engine always has the user dictionary, words are not reported without any editable one
+        UserDictionary userDictionary = new UserDictionary("user");
+        spellChecker.loadDictionary(new EditableDictionaryLoader() {
+            @Override
+            public EditableDictionary getDictionary() {
+                return userDictionary;
+            }
+
+            @Override
+            public void load(@Nonnull Consumer<String> consumer) {
+            }
+
+            @Override
+            public String getName() {
+                return userDictionary.getName();
+            }
+        });
+        return spellChecker;
+    }
+
+    private static Loader loader(String content) {
+        return new StreamLoader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "test.dic", "test.dic");
+    }
+}
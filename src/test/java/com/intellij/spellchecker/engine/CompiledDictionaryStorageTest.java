@@ -0,0 +1,191 @@
+package com.intellij.spellchecker.engine;
+
+import com.intellij.spellchecker.StreamLoader;
+import com.intellij.spellchecker.compress.CompressedDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledDictionaryStorageTest {
+    private final Transformation transform = new Transformation();
+
+    @Test
+    public void testCorruptedFileIsCompiledAgain() throws IOException {
+        Path directory = Files.createTempDirectory("spellchecker");
+        try {
+            new CompiledDictionaryStorage(directory).store("hash", dictionary("first\nsecond"));
+            Path file = single(directory);
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[bytes.length - 6] ^= 1;
+            Files.write(file, bytes);
+
+            // rows are verified after the header is mapped
+            CompiledDictionaryStorage storage = new CompiledDictionaryStorage(directory);
+            assertNotNull(storage.load("hash", "test.dic"));
+            assertFalse(Files.exists(file));
+
+            CompressedDictionary dictionary = new CompressedDictionaryRegistry(storage).acquire(loader("first\nsecond"), transform);
+            assertTrue(dictionary.contains("second"));
+            assertTrue(new CompressedDictionaryRegistry(storage).acquire(loader("first\nsecond"), transform).contains("second"));
+            single(directory);
+        }
+        finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testCorruptedHeaderIsNotLoaded() throws IOException {
+        Path directory = Files.createTempDirectory("spellchecker");
+        try {
+            new CompiledDictionaryStorage(directory).store("hash", dictionary("first\nsecond"));
+            Path file = single(directory);
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[Integer.BYTES * 2] ^= 1;
+            Files.write(file, bytes);
+
+            assertNull(new CompiledDictionaryStorage(directory).load("hash", "test.dic"));
+            assertFalse(Files.exists(file));
+        }
+        finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testVerifiedOncePerSession() throws IOException {
+        Path directory = Files.createTempDirectory("spellchecker");
+        try {
+            List<Runnable> verifications = new ArrayList<>();
+            CompiledDictionaryStorage storing = new CompiledDictionaryStorage(directory, Long.MAX_VALUE, verifications::add);
+            storing.store("hash", dictionary("first\nsecond"));
+            assertNotNull(storing.load("hash", "test.dic"));
+            assertTrue(verifications.isEmpty());
+
+            CompiledDictionaryStorage storage = new CompiledDictionaryStorage(directory, Long.MAX_VALUE, verifications::add);
+            assertNotNull(storage.load("hash", "test.dic"));
+            assertNotNull(storage.load("hash", "test.dic"));
+            assertEquals(1, verifications.size());
+            verifications.get(0).run();
+            single(directory);
+        }
+        finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws IOException {
+        Path directory = Files.createTempDirectory("spellchecker");
+        try {
+            CompressedDictionary dictionary = dictionary("first\nsecond");
+            new CompiledDictionaryStorage(directory).store("probe", dictionary);
+            long size = Files.size(single(directory));
+            Files.delete(single(directory));
+
+            CompiledDictionaryStorage storage = new CompiledDictionaryStorage(directory, size * 2, Runnable::run);
+            storage.store("first", dictionary);
+            storage.store("second", dictionary);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.setLastModifiedTime(file, FileTime.fromMillis(1000));
+                }
+            }
+            assertNotNull(storage.load("first", "test.dic"));
+
+            storage.store("third", dictionary);
+            assertNotNull(storage.load("first", "test.dic"));
+            assertNull(storage.load("second", "test.dic"));
+            assertNotNull(storage.load("third", "test.dic"));
+        }
+        finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testDictionaryInUseIsNotEvicted() throws IOException {
+        Path directory = Files.createTempDirectory("spellchecker");
+        try {
+            CompressedDictionary dictionary = dictionary("first\nsecond");
+            new CompiledDictionaryStorage(directory).store("probe", dictionary);
+            long size = Files.size(single(directory));
+            Files.delete(single(directory));
+
+            CompiledDictionaryStorage storage = new CompiledDictionaryStorage(directory, size * 2, Runnable::run);
+            storage.store("first", dictionary);
+            storage.store("second", dictionary);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.setLastModifiedTime(file, FileTime.fromMillis(file.toString().contains("first") ? 1000 : 2000));
+                }
+            }
+
+            storage.store("third", dictionary, "first"::equals);
+            assertTrue(storage.contains("first"));
+            assertFalse(storage.contains("second"));
+            assertTrue(storage.contains("third"));
+        }
+        finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testMarkedFileIsDeletedInsteadOfLoading() throws IOException {
+        Path directory = Files.createTempDirectory("spellchecker");
+        try {
+            CompiledDictionaryStorage storage = new CompiledDictionaryStorage(directory);
+            storage.store("hash", dictionary("first\nsecond"));
+            Path file = single(directory);
+            Files.createFile(file.resolveSibling(file.getFileName() + ".deleted"));
+
+            assertFalse(storage.contains("hash"));
+            assertNull(storage.load("hash", "test.dic"));
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(0, files.count());
+            }
+
+            storage.store("hash", dictionary("first\nsecond"));
+            assertNotNull(storage.load("hash", "test.dic"));
+        }
+        finally {
+            delete(directory);
+        }
+    }
+
+    private CompressedDictionary dictionary(String content) {
+        return CompressedDictionary.create(loader(content), transform);
+    }
+
+    private static StreamLoader loader(String content) {
+        return new StreamLoader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "test.dic", "test:test.dic");
+    }
+
+    private static Path single(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> list = files.toList();
+            assertEquals(1, list.size());
+            return list.get(0);
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+}
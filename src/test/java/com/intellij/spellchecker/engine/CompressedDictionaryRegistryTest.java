@@ -0,0 +1,181 @@
+package com.intellij.spellchecker.engine;
+
+import com.intellij.spellchecker.FileLoader;
+import com.intellij.spellchecker.StreamLoader;
+import com.intellij.spellchecker.compress.CompressedDictionary;
+import com.intellij.spellchecker.compress.MergedDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedDictionaryRegistryTest {
+    private final Transformation transform = new Transformation();
+
+    @Test
+    public void testSameContentIsShared() {
+        CompressedDictionaryRegistry registry = new CompressedDictionaryRegistry(null);
+        CompressedDictionary first = registry.acquire(loader("test.dic", "first\nsecond"), transform);
+        CompressedDictionary second = registry.acquire(loader("test.dic", "first\nsecond"), transform);
+        assertSame(first, second);
+        assertTrue(second.contains("second"));
+    }
+
+    @Test
+    public void testChangedContentIsNotShared() {
+        CompressedDictionaryRegistry registry = new CompressedDictionaryRegistry(null);
+        CompressedDictionary first = registry.acquire(loader("test.dic", "first\nsecond"), transform);
+        CompressedDictionary second = registry.acquire(loader("test.dic", "first\nthird"), transform);
+        assertNotSame(first, second);
+        assertTrue(second.contains("third"));
+    }
+
+    @Test
+    public void testReleasedDictionaryIsRebuilt() {
+        CompressedDictionaryRegistry registry = new CompressedDictionaryRegistry(null);
+        CompressedDictionary first = registry.acquire(loader("test.dic", "first"), transform);
+        CompressedDictionary second = registry.acquire(loader("test.dic", "first"), transform);
+        registry.release(first);
+        assertSame(second, registry.acquire(loader("test.dic", "first"), transform));
+
+        registry.release(second);
+        registry.release(second);
+        assertNotSame(first, registry.acquire(loader("test.dic", "first"), transform));
+    }
+
+    @Test
+    public void testLoaderWithoutSourceIsNotShared() {
+        CompressedDictionaryRegistry registry = new CompressedDictionaryRegistry(null);
+        CompressedDictionary first = registry.acquire(new StreamLoader(stream("first"), "test.dic"), transform);
+        CompressedDictionary second = registry.acquire(new StreamLoader(stream("first"), "test.dic"), transform);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void testAcquireIfCompiled() throws IOException {
+        Path directory = Files.createTempDirectory("spellchecker");
+        try {
+            CompiledDictionaryStorage storage = new CompiledDictionaryStorage(directory);
+            CompressedDictionaryRegistry registry = new CompressedDictionaryRegistry(storage);
+            String hash = loader("test.dic", "first").getContentHash();
+            assertNull(registry.acquireIfCompiled(loader("test.dic", "first"), transform, hash));
+            CompressedDictionary first = registry.acquire(loader("test.dic", "first"), transform);
+            assertSame(first, registry.acquireIfCompiled(loader("test.dic", "first"), transform, hash));
+
+            CompressedDictionary compiled = new CompressedDictionaryRegistry(storage).acquireIfCompiled(loader("test.dic", "first"), transform, hash);
+            assertNotNull(compiled);
+            assertTrue(compiled.contains("first"));
+            assertNull(new CompressedDictionaryRegistry(null).acquireIfCompiled(loader("test.dic", "first"), transform, hash));
+        }
+        finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testCompiledDictionaryIsReused() throws IOException {
+        Path directory = Files.createTempDirectory("spellchecker");
+        try {
+            CompiledDictionaryStorage storage = new CompiledDictionaryStorage(directory);
+            CompressedDictionary first = new CompressedDictionaryRegistry(storage).acquire(loader("test.dic", "first\nsecond"), transform);
+            CompressedDictionary second = new CompressedDictionaryRegistry(storage).acquire(loader("test.dic", "first\nsecond"), transform);
+            assertNotSame(first, second);
+            assertEquals(first.getWords(), second.getWords());
+            assertTrue(second.contains("second"));
+        }
+        finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testContentOfSharedDictionaryIsReleased() throws IOException {
+        Path file = Files.createTempFile("spellchecker", ".dic");
+        try {
+            Files.writeString(file, "first", StandardCharsets.UTF_8);
+            CompressedDictionaryRegistry registry = new CompressedDictionaryRegistry(null);
+            CompressedDictionary first = registry.acquire(new FileLoader(file.toString(), "test.dic"), transform);
+            FileLoader loader = new FileLoader(file.toString(), "test.dic");
+            assertSame(first, registry.acquire(loader, transform));
+
+            Files.writeString(file, "second", StandardCharsets.UTF_8);
+            assertEquals(new FileLoader(file.toString(), "test.dic").getContentHash(), loader.getContentHash());
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testMergedIndexIsShared() {
+        CompressedDictionaryRegistry registry = new CompressedDictionaryRegistry(null);
+        List<CompressedDictionary> sources = List.of(
+            registry.acquire(loader("first.dic", "first\nsecond"), transform),
+            registry.acquire(loader("second.dic", "third"), transform)
+        );
+        MergedDictionary first = registry.acquireMerged(sources, transform);
+        MergedDictionary second = registry.acquireMerged(sources, transform);
+        assertNotSame(first, second);
+        assertTrue(first.sharesIndex(second));
+
+        assertTrue(first.mask("first.dic"));
+        assertFalse(first.isActiveSource("first.dic"));
+        assertTrue(second.isActiveSource("first.dic"));
+        assertEquals(Boolean.TRUE, second.contains("second"));
+    }
+
+    @Test
+    public void testReleasedMergedIndexIsRebuilt() {
+        CompressedDictionaryRegistry registry = new CompressedDictionaryRegistry(null);
+        List<CompressedDictionary> sources = List.of(
+            registry.acquire(loader("first.dic", "first"), transform),
+            registry.acquire(loader("second.dic", "second"), transform)
+        );
+        MergedDictionary first = registry.acquireMerged(sources, transform);
+        MergedDictionary second = registry.acquireMerged(sources, transform);
+        registry.release(first);
+        MergedDictionary third = registry.acquireMerged(sources, transform);
+        assertTrue(second.sharesIndex(third));
+
+        registry.release(second);
+        registry.release(third);
+        registry.release(third);
+        assertFalse(first.sharesIndex(registry.acquireMerged(sources, transform)));
+    }
+
+    @Test
+    public void testUnregisteredSourcesAreMergedWithoutSharing() {
+        CompressedDictionaryRegistry registry = new CompressedDictionaryRegistry(null);
+        List<CompressedDictionary> sources = List.of(
+            registry.acquire(new StreamLoader(stream("first"), "first.dic"), transform),
+            registry.acquire(loader("second.dic", "second"), transform)
+        );
+        MergedDictionary first = registry.acquireMerged(sources, transform);
+        assertFalse(first.sharesIndex(registry.acquireMerged(sources, transform)));
+    }
+
+    private static StreamLoader loader(String name, String content) {
+        return new StreamLoader(stream(content), name, "test:" + name);
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
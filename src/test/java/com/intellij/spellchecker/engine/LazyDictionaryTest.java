@@ -0,0 +1,142 @@
+package com.intellij.spellchecker.engine;
+
+import com.intellij.spellchecker.DefaultBundledDictionariesProvider;
+import com.intellij.spellchecker.FileLoader;
+import com.intellij.spellchecker.StreamLoader;
+import com.intellij.spellchecker.compress.CompressedDictionary;
+import com.intellij.spellchecker.dictionary.Loader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyDictionaryTest {
+    private final Transformation transform = new Transformation();
+    private final CompressedDictionaryRegistry registry = new CompressedDictionaryRegistry(null);
+
+    @Test
+    public void testAcquiredOnlyWhenReached() {
+        LazyDictionary dictionary = LazyDictionary.create(loader("first\nsecond\nthird"), transform, registry);
+        assertEquals(3, dictionary.size());
+
+        assertNull(dictionary.contains("\u0444\u0438\u0440\u0441\u0442"));
+        assertFalse(dictionary.contains("fourth"));
+        assertFalse(dictionary.evictIfIdle(0));
+
+        assertTrue(dictionary.contains("Second", 0, 6));
+        assertTrue(dictionary.evictIfIdle(0));
+        assertTrue(dictionary.contains("second"));
+    }
+
+    @Test
+    public void testAcquiredOnExecutorWithoutWaiting() {
+        List<Runnable> loads = new ArrayList<>();
+        LazyDictionary dictionary = LazyDictionary.create(loader("first\nsecond\nthird"), transform, registry, loads::add);
+        assertFalse(dictionary.contains("fourth"));
+        assertTrue(loads.isEmpty());
+
+        assertNull(dictionary.contains("second"));
+        assertNull(dictionary.contains("third"));
+        assertEquals(1, loads.size());
+        assertTrue(dictionary.isAcquiring("second", 0, 6));
+        assertFalse(dictionary.isAcquiring("fourth", 0, 6));
+
+        loads.get(0).run();
+        assertFalse(dictionary.isAcquiring("second", 0, 6));
+        assertTrue(dictionary.contains("second"));
+        assertTrue(dictionary.evictIfIdle(0));
+        assertNull(dictionary.contains("second"));
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    public void testReleased() {
+        LazyDictionary dictionary = LazyDictionary.create(loader("first\nsecond\nthird"), transform, registry);
+        assertTrue(dictionary.contains("first"));
+        dictionary.release();
+        assertNull(dictionary.contains("first"));
+        assertNull(dictionary.getDictionary());
+    }
+
+    @Test
+    public void testFilterIsRebuiltForChangedSource() throws IOException {
+        Path file = Files.createTempFile("spellchecker", ".dic");
+        try {
+            Files.writeString(file, "first\nsecond", StandardCharsets.UTF_8);
+            LazyDictionary dictionary = LazyDictionary.create(new FileLoader(file.toString(), "test.dic"), transform, registry);
+            assertTrue(dictionary.contains("first"));
+            assertTrue(dictionary.evictIfIdle(0));
+
+            Files.writeString(file, "third\nfourth\nfifth", StandardCharsets.UTF_8);
+            assertEquals(2, dictionary.size());
+            assertNotNull(dictionary.getDictionary());
+            assertEquals(3, dictionary.size());
+            assertTrue(dictionary.contains("fourth"));
+            assertFalse(dictionary.contains("first"));
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testCompiledVersionIsAcquiredForChangedSource() throws IOException {
+        Path directory = Files.createTempDirectory("spellchecker");
+        Path file = Files.createTempFile("spellchecker", ".dic");
+        try {
+            CompressedDictionaryRegistry registry = new CompressedDictionaryRegistry(new CompiledDictionaryStorage(directory));
+            Files.writeString(file, "first\nsecond", StandardCharsets.UTF_8);
+            LazyDictionary dictionary = LazyDictionary.create(new FileLoader(file.toString(), "test.dic"), transform, registry);
+            assertTrue(dictionary.contains("first"));
+            assertTrue(dictionary.evictIfIdle(0));
+
+            // the version the filter was built from is mapped again, the changed file is reloaded by the manager
+            Files.writeString(file, "third", StandardCharsets.UTF_8);
+            assertTrue(dictionary.contains("second"));
+            assertFalse(dictionary.contains("third"));
+        }
+        finally {
+            Files.deleteIfExists(file);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path compiled : files.toList()) {
+                    Files.delete(compiled);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testSameAnswersAsCompressedDictionary() {
+        String name = "programming.dic";
+        Loader loader = new StreamLoader(DefaultBundledDictionariesProvider.class.getResourceAsStream(name), name, name);
+        CompressedDictionary expected = CompressedDictionary.create(loader, transform);
+        LazyDictionary dictionary = LazyDictionary.create(loader, transform, registry);
+
+        for (String word : expected.getWords()) {
+            assertTrue(dictionary.contains(word), word);
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            char[] chars = new char[3 + random.nextInt(8)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = (char) ('a' + random.nextInt(28));
+            }
+            String word = new String(chars);
+            assertEquals(expected.contains(word), dictionary.contains(word), word);
+        }
+    }
+
+    private static Loader loader(String content) {
+        return new StreamLoader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "test.dic", "test.dic");
+    }
+}
@@ -0,0 +1,53 @@
+package com.intellij.spellchecker.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevenshteinDistanceTest {
+    private final LevenshteinDistance metrics = new LevenshteinDistance();
+
+    @Test
+    public void testKnownDistances() {
+        assertEquals(3, metrics.calculateMetrics("kitten", "sitting"));
+        assertEquals(3, metrics.calculateMetrics("kitten", "sitting", 3));
+        assertEquals(0, metrics.calculateMetrics("word", "word", 0));
+        assertEquals(4, metrics.calculateMetrics("", "word", Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testBoundExceeded() {
+        assertTrue(metrics.calculateMetrics("kitten", "sitting", 2) > 2);
+        assertTrue(metrics.calculateMetrics("a", "abcdef", 1) > 1);
+        assertTrue(metrics.calculateMetrics("word", "", 0) > 0);
+    }
+
+    @Test
+    public void testBoundedMatchesFull() {
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            String first = randomWord(random);
+            String second = randomWord(random);
+            int expected = metrics.calculateMetrics(first, second);
+            for (int bound = 0; bound <= 12; bound++) {
+                int actual = metrics.calculateMetrics(first, second, bound);
+                if (expected <= bound) {
+                    assertEquals(expected, actual, first + " " + second + " " + bound);
+                }
+                else {
+                    assertTrue(actual > bound, first + " " + second + " " + bound);
+                }
+            }
+        }
+    }
+
+    private static String randomWord(Random random) {
+        char[] chars = new char[random.nextInt(11)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(4));
+        }
+        return new String(chars);
+    }
+}
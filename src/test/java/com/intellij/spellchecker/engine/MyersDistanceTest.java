@@ -0,0 +1,72 @@
+package com.intellij.spellchecker.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MyersDistanceTest {
+    private final LevenshteinDistance expectedMetrics = new LevenshteinDistance();
+    private final MyersDistance metrics = new MyersDistance();
+
+    @Test
+    public void testKnownDistances() {
+        assertEquals(3, metrics.calculateMetrics("kitten", "sitting"));
+        assertEquals(0, metrics.calculateMetrics("", ""));
+        assertEquals(4, metrics.calculateMetrics("", "word"));
+        assertEquals(4, metrics.calculateMetrics("word", ""));
+        assertEquals(1, metrics.calculateMetrics("\u00fcber", "uber"));
+    }
+
+    @Test
+    public void testMatchesLevenshtein() {
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            String first = randomWord(random, 12);
+            String second = randomWord(random, 12);
+            assertEquals(expectedMetrics.calculateMetrics(first, second), metrics.calculateMetrics(first, second), first + " " + second);
+        }
+    }
+
+    @Test
+    public void testLongWords() {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            String first = randomWord(random, 70);
+            String second = randomWord(random, 70);
+            assertEquals(expectedMetrics.calculateMetrics(first, second), metrics.calculateMetrics(first, second), first + " " + second);
+        }
+    }
+
+    @Test
+    public void testPreparedQueryWithBound() {
+        Random random = new Random(13);
+        for (int i = 0; i < 500; i++) {
+            String first = randomWord(random, 12);
+            Metrics.Query query = metrics.forQuery(first);
+            for (int j = 0; j < 20; j++) {
+                String second = randomWord(random, 12);
+                int expected = expectedMetrics.calculateMetrics(first, second);
+                for (int bound = 0; bound <= 12; bound++) {
+                    int actual = query.calculateMetrics(second, bound);
+                    if (expected <= bound) {
+                        assertEquals(expected, actual, first + " " + second + " " + bound);
+                    }
+                    else {
+                        assertTrue(actual > bound, first + " " + second + " " + bound);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String randomWord(Random random, int maxLength) {
+        char[] chars = new char[random.nextInt(maxLength + 1)];
+        for (int i = 0; i < chars.length; i++) {
+            int letter = random.nextInt(6);
+            chars[i] = letter < 4 ? (char) ('a' + letter) : (char) ('\u00e0' + letter);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,44 @@
+package com.intellij.spellchecker.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpellCheckerStatisticsTest {
+    @Test
+    public void testHistogramPercentiles() {
+        SpellCheckerStatistics.Histogram histogram = new SpellCheckerStatistics.Histogram();
+        assertEquals(0, histogram.getPercentile(50));
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(5000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(99 * 100 + 5000, histogram.getSum());
+        assertEquals(127, histogram.getPercentile(50));
+        assertEquals(127, histogram.getPercentile(99));
+        assertEquals(8191, histogram.getPercentile(100));
+
+        histogram.record(0);
+        histogram.record(-1);
+        assertEquals(1, histogram.getPercentile(1));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        SpellCheckerStatistics statistics = new SpellCheckerStatistics();
+        assertFalse(statistics.isEnabled());
+        statistics.wordChecked(SpellCheckerStatistics.Verdict.TYPO, 100);
+        statistics.suggestionsCollected(100, 10);
+        statistics.dictionaryLoaded("test.dic", 100, null);
+
+        assertEquals(0, statistics.getCheckedWordsCount());
+        assertEquals(0.0, statistics.getVerdictRatio(SpellCheckerStatistics.Verdict.TYPO));
+        assertEquals(0, statistics.getSuggestionsNanos().getCount());
+        assertTrue(statistics.getDictionaryLoads().isEmpty());
+    }
+}
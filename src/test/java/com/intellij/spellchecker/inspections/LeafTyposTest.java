@@ -0,0 +1,62 @@
+package com.intellij.spellchecker.inspections;
+
+import consulo.document.util.TextRange;
+import consulo.language.Language;
+import consulo.language.ast.IElementType;
+import consulo.language.psi.PsiElement;
+import consulo.language.spellcheker.tokenizer.TokenConsumer;
+import consulo.language.spellcheker.tokenizer.Tokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeafTyposTest {
+    private static final IElementType COMMENT = new IElementType("COMMENT", Language.ANY);
+    private static final IElementType STRING = new IElementType("STRING", Language.ANY);
+    private static final Tokenizer<PsiElement> TOKENIZER = new Tokenizer<>() {
+        @Override
+        public void tokenize(PsiElement element, TokenConsumer consumer) {
+        }
+    };
+
+    @Test
+    public void testUnchangedLeafIsReused() {
+        LeafTypos leafTypos = new LeafTypos(16, 1);
+        List<LeafTypos.Typo> typos = List.of(new LeafTypos.Typo(new TextRange(3, 7), "wrng", false));
+        leafTypos.put(LeafTypos.LeafKey.of(COMMENT, TOKENIZER, "// wrng"), typos, 1);
+
+        assertEquals(typos, leafTypos.get(LeafTypos.LeafKey.of(COMMENT, TOKENIZER, "// wrng"), 1));
+        assertNull(leafTypos.get(LeafTypos.LeafKey.of(COMMENT, TOKENIZER, "// wrnk"), 1));
+        assertNull(leafTypos.get(LeafTypos.LeafKey.of(STRING, TOKENIZER, "// wrng"), 1));
+    }
+
+    @Test
+    public void testLeavesWithSameStringHashAreDistinguished() {
+        assertEquals("// Aa".hashCode(), "// BB".hashCode());
+        LeafTypos leafTypos = new LeafTypos(16, 1);
+        leafTypos.put(LeafTypos.LeafKey.of(COMMENT, TOKENIZER, "// Aa"), List.of(new LeafTypos.Typo(new TextRange(3, 5), "Aa", false)), 1);
+        assertNull(leafTypos.get(LeafTypos.LeafKey.of(COMMENT, TOKENIZER, "// BB"), 1));
+    }
+
+    @Test
+    public void testDictionaryChangeInvalidatesLeaves() {
+        LeafTypos leafTypos = new LeafTypos(16, 1);
+        leafTypos.put(LeafTypos.LeafKey.of(COMMENT, TOKENIZER, "// wrng"), List.of(new LeafTypos.Typo(new TextRange(3, 7), "wrng", false)), 1);
+        assertNull(leafTypos.get(LeafTypos.LeafKey.of(COMMENT, TOKENIZER, "// wrng"), 2));
+
+        leafTypos.put(LeafTypos.LeafKey.of(COMMENT, TOKENIZER, "// wrng"), List.of(), 2);
+        assertEquals(List.of(), leafTypos.get(LeafTypos.LeafKey.of(COMMENT, TOKENIZER, "// wrng"), 2));
+        assertEquals(1, leafTypos.size());
+    }
+
+    @Test
+    public void testTyposOfOutdatedGenerationAreDropped() {
+        LeafTypos leafTypos = new LeafTypos(16, 1);
+        leafTypos.put(LeafTypos.LeafKey.of(COMMENT, TOKENIZER, "// first"), List.of(), 2);
+        leafTypos.put(LeafTypos.LeafKey.of(COMMENT, TOKENIZER, "// second"), List.of(), 1);
+        assertNull(leafTypos.get(LeafTypos.LeafKey.of(COMMENT, TOKENIZER, "// second"), 1));
+        assertEquals(List.of(), leafTypos.get(LeafTypos.LeafKey.of(COMMENT, TOKENIZER, "// first"), 2));
+    }
+}
@@ -0,0 +1,62 @@
+package com.intellij.spellchecker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DictionaryFolderWatcherTest {
+    @Test
+    public void testReportsChangedDictionaries() throws Exception {
+        Path folder = Files.createTempDirectory("dictionaries");
+        BlockingQueue<Set<String>> events = new LinkedBlockingQueue<>();
+        try (DictionaryFolderWatcher ignored = new DictionaryFolderWatcher(List.of(folder.toString()), 200, events::add)) {
+            Path dictionary = folder.resolve("words.dic");
+            // rewriting the file is reported once
+            for (int i = 0; i < 5; i++) {
+                Files.writeString(dictionary, "first\nsecond" + i + "\n", StandardCharsets.UTF_8);
+            }
+            Files.writeString(folder.resolve("words.txt"), "ignored", StandardCharsets.UTF_8);
+            assertEquals(Set.of(dictionary.toString()), poll(events));
+
+            Files.delete(dictionary);
+            assertEquals(Set.of(dictionary.toString()), poll(events));
+
+            Path nested = Files.createDirectory(folder.resolve("nested"));
+            Path nestedDictionary = Files.writeString(nested.resolve("nested.dic"), "third", StandardCharsets.UTF_8);
+            assertEquals(Set.of(nestedDictionary.toString()), poll(events));
+
+            Files.writeString(nestedDictionary, "fourth", StandardCharsets.UTF_8);
+            assertEquals(Set.of(nestedDictionary.toString()), poll(events));
+            assertNull(events.poll(500, TimeUnit.MILLISECONDS));
+        }
+        finally {
+            delete(folder);
+        }
+    }
+
+    private static Set<String> poll(BlockingQueue<Set<String>> events) throws InterruptedException {
+        Set<String> paths = events.poll(30, TimeUnit.SECONDS);
+        assertNotNull(paths);
+        return paths;
+    }
+
+    private static void delete(Path folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.intellij.spellchecker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LineReaderTest {
+    @Test
+    public void testSameLinesAsBufferedReader() throws IOException {
+        String[] contents = {
+            "",
+            "\n",
+            "word",
+            "first\nsecond\n",
+            "first\r\nsecond\rthird\n\nfourth",
+            "\r\r\n\n",
+            "caf\u00e9\nna\u00efve\r\n\u043f\u0440\u0438\u0432\u0435\u0442",
+        };
+        for (String content : contents) {
+            List<String> lines = new ArrayList<>();
+            LineReader.readLines(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)), line -> lines.add(line.toString()));
+            assertEquals(readLines(content), lines);
+        }
+    }
+
+    @Test
+    public void testMalformedInputIsReplaced() {
+        ByteBuffer content = ByteBuffer.wrap(new byte[]{'a', (byte) 0xFF, 'b', '\n', 'c'});
+        List<String> lines = new ArrayList<>();
+        LineReader.readLines(content, line -> lines.add(line.toString()));
+        assertEquals(List.of("a\ufffdb", "c"), lines);
+    }
+
+    private static List<String> readLines(String content) throws IOException {
+        List<String> lines = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new StringReader(content));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,40 @@
+package com.intellij.spellchecker.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VerdictCacheTest {
+    @Test
+    public void testVerdictsOfOtherGenerationsAreNotReturned() {
+        VerdictCache<String, Boolean> cache = new VerdictCache<>(100, 1);
+        cache.put("value", true, 1);
+        cache.put("typo", false, 1);
+        assertEquals(Boolean.TRUE, cache.get("value", 1));
+        assertEquals(Boolean.FALSE, cache.get("typo", 1));
+        assertNull(cache.get("value", 2));
+        assertNull(cache.get("other", 1));
+
+        // computed before the dictionaries changed
+        cache.put("typo", false, 2);
+        cache.put("value", false, 1);
+        assertNull(cache.get("value", 2));
+        assertNull(cache.get("value", 1));
+        assertEquals(Boolean.FALSE, cache.get("typo", 2));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        VerdictCache<String, Boolean> cache = new VerdictCache<>(3, 1);
+        cache.put("first", true, 0);
+        cache.put("second", true, 0);
+        cache.put("third", true, 0);
+        assertNotNull(cache.get("first", 0));
+
+        cache.put("fourth", true, 0);
+        assertEquals(3, cache.size());
+        assertNotNull(cache.get("first", 0));
+        assertNull(cache.get("second", 0));
+        assertNotNull(cache.get("fourth", 0));
+    }
+}